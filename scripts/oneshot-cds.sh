@@ -0,0 +1,37 @@
+#!/bin/sh
+# Runs fraction.OneShotMain with an AppCDS archive so that repeated one-shot runs start faster.
+#
+#   scripts/oneshot-cds.sh --build        compiles the classes and creates the archive
+#   scripts/oneshot-cds.sh 1/2 "*" 3/4    evaluates an equation using the archive
+#
+# The archive is only used with the exact jar it was built from. It is created with
+# -XX:ArchiveClassesAtExit, which needs a JDK 13 or newer runtime.
+# The classes are compiled for Java 8, so they still run on older JVMs without the archive.
+set -e
+
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+CLASSES="$ROOT/build/classes"
+JAR="$ROOT/build/fraction.jar"
+ARCHIVE="$ROOT/build/oneshot.jsa"
+JAVA=${JAVA:-java}
+
+if [ "$1" = "--build" ]; then
+    rm -rf "$CLASSES" "$JAR" "$ARCHIVE"
+    mkdir -p "$CLASSES"
+    javac --release 8 -d "$CLASSES" "$ROOT"/src/fraction/*.java
+    # Class data sharing only archives classes loaded from jars
+    jar cf "$JAR" -C "$CLASSES" .
+    # A training run records every class the one-shot path loads
+    "$JAVA" -XX:ArchiveClassesAtExit="$ARCHIVE" -cp "$JAR" fraction.OneShotMain 1/2 "*" 3/4 > /dev/null
+    echo "Created $ARCHIVE"
+    exit 0
+fi
+
+if [ ! -f "$ARCHIVE" ]; then
+    echo "No archive found, run $0 --build first" >&2
+    exit 1
+fi
+
+# -Xshare:auto falls back to a normal start if the archive doesn't match this JVM
+exec "$JAVA" -XX:SharedArchiveFile="$ARCHIVE" -Xshare:auto -XX:TieredStopAtLevel=1 \
+    -cp "$JAR" fraction.OneShotMain "$@"
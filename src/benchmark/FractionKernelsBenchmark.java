@@ -0,0 +1,81 @@
+package benchmark;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import fraction.BigFraction;
+import fraction.Fraction;
+import fraction.FractionKernels;
+
+/**
+ * Compares a dot product computed with a Fraction.multiply()/add() loop against the fused kernels in
+ * FractionKernels, on a single thread and on the common pool.
+ * <p>
+ * The vectors use small numerators and a handful of denominators with alternating signs, so the naive
+ * loop doesn't overflow and all three results can be checked against each other.
+ * Usage: {@code FractionKernelsBenchmark [length]}
+ * @author mmb1995
+ *
+ */
+public class FractionKernelsBenchmark {
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    public static void main(String[] args) {
+        int length = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        Random random = new Random(42);
+        int[] denominators = {2, 3, 4, 5, 6};
+
+        Fraction[] first = new Fraction[length];
+        Fraction[] second = new Fraction[length];
+        for (int i = 0; i < length; i++) {
+            int sign = i % 2 == 0 ? 1 : -1;
+            first[i] = new Fraction(sign * (1 + random.nextInt(3)), denominators[random.nextInt(denominators.length)]);
+            second[i] = new Fraction(1 + random.nextInt(3), denominators[random.nextInt(denominators.length)]);
+        }
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            naiveDotProduct(first, second);
+            FractionKernels.dotProduct(first, second);
+            FractionKernels.dotProduct(first, second, pool);
+        }
+
+        long naiveTime = 0;
+        long fusedTime = 0;
+        long parallelTime = 0;
+        Fraction naive = null;
+        BigFraction fused = null;
+        BigFraction parallel = null;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            naive = naiveDotProduct(first, second);
+            naiveTime += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            fused = FractionKernels.dotProduct(first, second);
+            fusedTime += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            parallel = FractionKernels.dotProduct(first, second, pool);
+            parallelTime += System.nanoTime() - start;
+        }
+
+        long terms = (long) MEASURED_ROUNDS * length;
+        System.out.println("Vector length: " + length + ", threads: " + pool.getParallelism());
+        System.out.println("multiply/add loop: " + (naiveTime / terms) + " ns/term, result " + naive);
+        System.out.println("fused kernel:      " + (fusedTime / terms) + " ns/term, result " + fused);
+        System.out.println("parallel kernel:   " + (parallelTime / terms) + " ns/term, result " + parallel);
+        if (!BigFraction.valueOf(naive).equals(fused) || !fused.equals(parallel)) {
+            System.out.println("The results don't match!");
+        }
+    }
+
+    private static Fraction naiveDotProduct(Fraction[] first, Fraction[] second) {
+        Fraction sum = new Fraction(0);
+        for (int i = 0; i < first.length; i++) {
+            sum = sum.add(first[i].multiply(second[i]));
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,92 @@
+package benchmark;
+
+import fraction.BigFraction;
+import fraction.Fraction;
+import fraction.ProductChain;
+
+/**
+ * Compares evaluating long chains of multiplications and divisions with Fraction.multiply()/divide()
+ * against ProductChain, which cross cancels before multiplying.
+ * <p>
+ * Each chain multiplies by n/(n+1) and divides by (n+1)/(n+2) for a run of consecutive n. Most factors
+ * cancel, so the result fits in a long, but the unreduced products formed by Fraction overflow an int
+ * once n is more than about a thousand. The benchmark also counts how many chains Fraction gets wrong.
+ * Usage: {@code ProductChainBenchmark [chainLength] [chains]}
+ * @author mmb1995
+ *
+ */
+public class ProductChainBenchmark {
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    public static void main(String[] args) {
+        int chainLength = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int chains = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        // Spread the chains from small to large operands
+        int[] starts = new int[chains];
+        for (int i = 0; i < chains; i++) {
+            starts[i] = 1 + i * (100000 / chains);
+        }
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            runFractions(starts, chainLength);
+            runProductChains(starts, chainLength);
+        }
+
+        long fractionTime = 0;
+        long chainTime = 0;
+        int wrongResults = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            Fraction[] naive = runFractions(starts, chainLength);
+            fractionTime += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            BigFraction[] cancelled = runProductChains(starts, chainLength);
+            chainTime += System.nanoTime() - start;
+
+            wrongResults = 0;
+            for (int j = 0; j < chains; j++) {
+                if (naive[j] == null || !BigFraction.valueOf(naive[j]).equals(cancelled[j])) {
+                    wrongResults++;
+                }
+            }
+        }
+
+        long operations = (long) MEASURED_ROUNDS * chains * chainLength * 2;
+        System.out.println("Chains: " + chains + ", operations per chain: " + (chainLength * 2));
+        System.out.println("Fraction.multiply/divide: " + (fractionTime / operations) + " ns/op, "
+                + wrongResults + " of " + chains + " chains overflowed");
+        System.out.println("ProductChain:             " + (chainTime / operations) + " ns/op");
+    }
+
+    private static Fraction[] runFractions(int[] starts, int chainLength) {
+        Fraction[] results = new Fraction[starts.length];
+        for (int i = 0; i < starts.length; i++) {
+            Fraction product = new Fraction(1);
+            try {
+                for (int n = starts[i]; n < starts[i] + chainLength; n++) {
+                    product = product.multiply(new Fraction(n, n + 1)).divide(new Fraction(n + 1, n + 2));
+                }
+                results[i] = product;
+            } catch (IllegalArgumentException ex) {
+                // An overflow produced a zero denominator
+                results[i] = null;
+            }
+        }
+        return results;
+    }
+
+    private static BigFraction[] runProductChains(int[] starts, int chainLength) {
+        BigFraction[] results = new BigFraction[starts.length];
+        for (int i = 0; i < starts.length; i++) {
+            ProductChain chain = new ProductChain();
+            for (int n = starts[i]; n < starts[i] + chainLength; n++) {
+                chain.multiply(new Fraction(n, n + 1)).divide(new Fraction(n + 1, n + 2));
+            }
+            results[i] = chain.toBigFraction();
+        }
+        return results;
+    }
+}
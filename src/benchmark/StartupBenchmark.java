@@ -0,0 +1,86 @@
+package benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures the time from launching a JVM to reading the result of a single equation, comparing
+ * fraction.Main with fraction.OneShotMain, and OneShotMain with a class data sharing archive if one is given.
+ * Each configuration is launched as a separate process and the median of the runs is reported.
+ * Usage: {@code StartupBenchmark [runs] [archive.jsa]}. The child processes use the benchmark's own classpath,
+ * and an archive created with scripts/oneshot-cds.sh --build is only used when that classpath starts with
+ * build/fraction.jar.
+ * @author mmb1995
+ *
+ */
+public class StartupBenchmark {
+    private static final String[] EQUATION = {"1/2", "+", "3/4"};
+    private static final String EXPECTED_RESULT = "1_1/4";
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        String archive = args.length > 1 ? args[1] : null;
+
+        report("Main", runs, command(null, "fraction.Main"));
+        report("OneShotMain", runs, command(null, "fraction.OneShotMain"));
+        if (archive != null) {
+            report("OneShotMain + AppCDS", runs, command(archive, "fraction.OneShotMain"));
+        }
+    }
+
+    private static List<String> command(String archive, String mainClass) {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        if (archive != null) {
+            command.add("-XX:SharedArchiveFile=" + archive);
+            command.add("-XX:TieredStopAtLevel=1");
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(mainClass);
+        for (String part: EQUATION) {
+            command.add(part);
+        }
+        return command;
+    }
+
+    private static void report(String name, int runs, List<String> command) throws IOException, InterruptedException {
+        // The first launch warms up the file system cache
+        timeToResult(command);
+
+        long[] times = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            times[i] = timeToResult(command);
+        }
+        Arrays.sort(times);
+        System.out.println(name + ": median " + (times[runs / 2] / 1000000) + " ms, best "
+                + (times[0] / 1000000) + " ms to first result");
+    }
+
+    /**
+     * Launches the command and returns the nanoseconds until it prints a line ending with the expected result
+     */
+    private static long timeToResult(List<String> command) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        long elapsed = -1;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (elapsed < 0 && line.trim().endsWith(EXPECTED_RESULT)) {
+                    elapsed = System.nanoTime() - start;
+                }
+            }
+        }
+        process.waitFor();
+        if (elapsed < 0) {
+            throw new IllegalStateException("The process never printed " + EXPECTED_RESULT + ": " + command);
+        }
+        return elapsed;
+    }
+}
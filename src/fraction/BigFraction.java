@@ -0,0 +1,165 @@
+package fraction;
+
+import java.math.BigInteger;
+
+/**
+ * An immutable, arbitrary precision counterpart to Fraction. It is used to report exact results
+ * that may not fit in the int fields of a Fraction, such as the sum of a long stream of values.
+ * A BigFraction is always kept in lowest terms with a positive denominator.
+ * @author mmb1995
+ *
+ */
+public final class BigFraction implements Comparable<BigFraction> {
+    public static final BigFraction ZERO = new BigFraction(BigInteger.ZERO, BigInteger.ONE);
+
+    private final BigInteger numerator;
+    private final BigInteger denominator;
+
+    private BigFraction(BigInteger numerator, BigInteger denominator) {
+        this.numerator = numerator;
+        this.denominator = denominator;
+    }
+
+    /**
+     * Returns a BigFraction in lowest terms that represents num/denom
+     * @param num the numerator
+     * @param denom the denominator
+     * @return a new BigFraction
+     */
+    public static BigFraction valueOf(BigInteger num, BigInteger denom) {
+        if (denom.signum() == 0) {
+            throw new IllegalArgumentException("The denominator of a fraction can't be zero.");
+        }
+        // Keep the sign on the numerator
+        if (denom.signum() < 0) {
+            num = num.negate();
+            denom = denom.negate();
+        }
+        BigInteger gcd = num.gcd(denom);
+        if (!gcd.equals(BigInteger.ONE)) {
+            num = num.divide(gcd);
+            denom = denom.divide(gcd);
+        }
+        return new BigFraction(num, denom);
+    }
+
+    /**
+     * Returns a BigFraction in lowest terms that represents num/denom
+     * @param num the numerator
+     * @param denom the denominator
+     * @return a new BigFraction
+     */
+    public static BigFraction valueOf(long num, long denom) {
+        return valueOf(BigInteger.valueOf(num), BigInteger.valueOf(denom));
+    }
+
+    /**
+     * Converts a Fraction into a BigFraction
+     * @param fraction the Fraction to convert
+     * @return a new BigFraction with the same value as the given Fraction
+     */
+    public static BigFraction valueOf(Fraction fraction) {
+        if (fraction == null) {
+            throw new IllegalArgumentException();
+        }
+        return valueOf(fraction.getNumerator(), fraction.getDenominator());
+    }
+
+    public BigInteger getNumerator() {
+        return numerator;
+    }
+
+    public BigInteger getDenominator() {
+        return denominator;
+    }
+
+    /**
+     * Adds two fractions together and returns the result
+     * @param other the BigFraction to add with this one
+     * @return a new BigFraction representing the sum
+     */
+    public BigFraction add(BigFraction other) {
+        return valueOf(numerator.multiply(other.denominator).add(other.numerator.multiply(denominator)),
+                denominator.multiply(other.denominator));
+    }
+
+    /**
+     * Subtracts the given fraction from this one
+     * @param other the BigFraction to subtract
+     * @return a new BigFraction representing the difference
+     */
+    public BigFraction subtract(BigFraction other) {
+        return valueOf(numerator.multiply(other.denominator).subtract(other.numerator.multiply(denominator)),
+                denominator.multiply(other.denominator));
+    }
+
+    /**
+     * Multiplies two fractions and returns the result
+     * @param other the BigFraction to multiply by
+     * @return a new BigFraction representing the product
+     */
+    public BigFraction multiply(BigFraction other) {
+        return valueOf(numerator.multiply(other.numerator), denominator.multiply(other.denominator));
+    }
+
+    /**
+     * Divides this fraction by the given one
+     * @param other the BigFraction to divide by
+     * @return a new BigFraction representing the quotient
+     */
+    public BigFraction divide(BigFraction other) {
+        return valueOf(numerator.multiply(other.denominator), denominator.multiply(other.numerator));
+    }
+
+    /**
+     * Converts this value back into a Fraction
+     * @return a Fraction with the same value
+     * @throws ArithmeticException if the numerator or denominator does not fit in an int
+     */
+    public Fraction toFraction() {
+        return new Fraction(numerator.intValueExact(), denominator.intValueExact());
+    }
+
+    @Override
+    public int compareTo(BigFraction other) {
+        // Denominators are always positive so cross multiplying keeps the ordering
+        return numerator.multiply(other.denominator).compareTo(other.numerator.multiply(denominator));
+    }
+
+    /**
+     * Returns a String representation of the fraction using the same format as Fraction.
+     * If the fraction is improper it is converted into a mixed number before being returned.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        if (numerator.compareTo(denominator) > 0) {
+            BigInteger[] wholeAndRemainder = numerator.divideAndRemainder(denominator);
+            builder.append(wholeAndRemainder[0]);
+            builder.append("_");
+            builder.append(wholeAndRemainder[1] + "/" + denominator);
+        } else {
+            builder.append(numerator);
+            builder.append("/");
+            builder.append(denominator);
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof BigFraction)) {
+            return false;
+        }
+        BigFraction f = (BigFraction) o;
+        return numerator.equals(f.numerator) && denominator.equals(f.denominator);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * numerator.hashCode() + denominator.hashCode();
+    }
+}
@@ -0,0 +1,241 @@
+package fraction;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Evaluates a file containing one equation per line and writes one result per line, recording its
+ * progress in a checkpoint file so that a job that was killed can carry on where it left off.
+ * <p>
+ * Every checkpointInterval lines the output is flushed and fsynced and a checkpoint is written with the
+ * input byte offset, the output byte offset and the running counters. Because the output is always on disk
+ * before the checkpoint that points past it, a checkpoint never refers to output that was lost. The
+ * checkpoint is written to a temporary file, fsynced and renamed over the old one, so it is never seen half
+ * written, even after a machine crash. Every syncInterval checkpoints the directory is also fsynced, which
+ * makes the rename itself durable. A crash in between can only undo recent renames, which sends the job
+ * back to an older, complete checkpoint.
+ * <p>
+ * When evaluation starts and a checkpoint exists, the output is truncated to the recorded offset and the
+ * input is read from the recorded offset, which produces the same output as a run that was never
+ * interrupted. The checkpoint is deleted once the whole file has been evaluated.
+ * <p>
+ * The checkpoint is a properties file with the keys inputOffset, outputOffset, lines and invalidLines.
+ * @author mmb1995
+ *
+ */
+public class CheckpointedBatchEvaluator {
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 100000;
+    public static final int DEFAULT_SYNC_INTERVAL = 10;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final EquationManipulator manipulator = new EquationManipulator();
+    private final int checkpointInterval;
+    private final int syncInterval;
+
+    // Progress of the current run, this is what a checkpoint records
+    private long inputOffset;
+    private long outputOffset;
+    private long lines;
+    private long invalidLines;
+
+    /**
+     * Creates an evaluator
+     * @param checkpointInterval the number of lines between checkpoints
+     * @param syncInterval the number of checkpoints between fsyncs of the directory that holds the
+     * checkpoint, or 0 to never fsync it
+     */
+    public CheckpointedBatchEvaluator(int checkpointInterval, int syncInterval) {
+        if (checkpointInterval < 1 || syncInterval < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.checkpointInterval = checkpointInterval;
+        this.syncInterval = syncInterval;
+    }
+
+    public CheckpointedBatchEvaluator() {
+        this(DEFAULT_CHECKPOINT_INTERVAL, DEFAULT_SYNC_INTERVAL);
+    }
+
+    /**
+     * Evaluates every equation in the input file, resuming from the checkpoint if there is one
+     * @param input the file to read
+     * @param output the file to write the results to
+     * @param checkpoint the file that records progress
+     * @return the total number of lines evaluated, including any evaluated before the checkpoint
+     * @throws IOException if a file can't be read or written, or the checkpoint doesn't match the output
+     */
+    public synchronized long evaluate(Path input, Path output, Path checkpoint) throws IOException {
+        boolean resuming = Files.exists(checkpoint);
+        if (resuming) {
+            readCheckpoint(checkpoint);
+        } else {
+            inputOffset = 0;
+            outputOffset = 0;
+            lines = 0;
+            invalidLines = 0;
+        }
+
+        try (FileChannel inputChannel = FileChannel.open(input, StandardOpenOption.READ);
+                FileChannel outputChannel = FileChannel.open(output, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE)) {
+            if (outputChannel.size() < outputOffset) {
+                throw new IOException("The output " + output + " is shorter than its checkpoint says");
+            }
+            // Drop anything written after the last checkpoint
+            outputChannel.truncate(outputOffset);
+            outputChannel.position(outputOffset);
+            inputChannel.position(inputOffset);
+
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(outputChannel), BUFFER_SIZE);
+            process(Channels.newInputStream(inputChannel), out, outputChannel, checkpoint);
+            out.flush();
+            outputChannel.force(false);
+        }
+
+        Files.deleteIfExists(checkpoint);
+        return lines;
+    }
+
+    public long getInvalidLines() {
+        return invalidLines;
+    }
+
+    /**
+     * Helper method that evaluates the remaining lines of the input and writes checkpoints along the way
+     */
+    private void process(InputStream in, OutputStream out, FileChannel outputChannel, Path checkpoint)
+            throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        byte[] line = new byte[256];
+        int lineLength = 0;
+        int linesSinceCheckpoint = 0;
+        int checkpointsSinceSync = 0;
+
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                byte b = buffer[i];
+                if (b != '\n') {
+                    if (lineLength == line.length) {
+                        line = Arrays.copyOf(line, line.length * 2);
+                    }
+                    line[lineLength++] = b;
+                    continue;
+                }
+
+                evaluateLine(line, lineLength, out);
+                inputOffset += lineLength + 1;
+                lineLength = 0;
+
+                if (++linesSinceCheckpoint == checkpointInterval) {
+                    linesSinceCheckpoint = 0;
+                    out.flush();
+                    // The output has to be durable before any checkpoint points past it, otherwise a crash
+                    // could leave a checkpoint whose output was never written
+                    outputChannel.force(false);
+                    boolean syncRename = syncInterval > 0 && ++checkpointsSinceSync == syncInterval;
+                    if (syncRename) {
+                        checkpointsSinceSync = 0;
+                    }
+                    writeCheckpoint(checkpoint, syncRename);
+                }
+            }
+        }
+
+        // The last line may not end with a line break
+        if (lineLength > 0) {
+            evaluateLine(line, lineLength, out);
+            inputOffset += lineLength;
+        }
+    }
+
+    /**
+     * Helper method that evaluates a single line and writes its result
+     */
+    private void evaluateLine(byte[] line, int length, OutputStream out) throws IOException {
+        String equation = new String(line, 0, length, StandardCharsets.UTF_8);
+        Fraction result = manipulator.evaluate(equation.trim());
+        if (result == null) {
+            invalidLines++;
+        }
+        byte[] bytes = (EquationManipulator.formatResult(equation, result) + "\n").getBytes(StandardCharsets.UTF_8);
+        out.write(bytes);
+        outputOffset += bytes.length;
+        lines++;
+    }
+
+    /**
+     * Helper method that atomically replaces the checkpoint file with the current progress
+     * @param syncRename true if the rename has to be made durable by fsyncing the directory
+     */
+    private void writeCheckpoint(Path checkpoint, boolean syncRename) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("inputOffset", Long.toString(inputOffset));
+        properties.setProperty("outputOffset", Long.toString(outputOffset));
+        properties.setProperty("lines", Long.toString(lines));
+        properties.setProperty("invalidLines", Long.toString(invalidLines));
+
+        Path temporary = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Writer writer = Channels.newWriter(channel, StandardCharsets.ISO_8859_1.newEncoder(), -1);
+            properties.store(writer, null);
+            writer.flush();
+            // Always fsynced, otherwise a crash could leave the renamed checkpoint empty or half written
+            channel.force(true);
+        }
+        Files.move(temporary, checkpoint, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        if (syncRename) {
+            // The rename is only durable once the directory that holds the checkpoint is fsynced
+            syncDirectory(checkpoint.toAbsolutePath().getParent());
+        }
+    }
+
+    /**
+     * Helper method that fsyncs a directory so that renames inside it survive a crash
+     */
+    private static void syncDirectory(Path directory) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException ex) {
+            // Some platforms, like Windows, can't open a directory and make renames durable on their own
+            return;
+        }
+        try (FileChannel opened = channel) {
+            opened.force(true);
+        }
+    }
+
+    /**
+     * Helper method that restores the progress recorded in a checkpoint
+     */
+    private void readCheckpoint(Path checkpoint) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(checkpoint, StandardCharsets.ISO_8859_1)) {
+            properties.load(reader);
+        }
+        try {
+            inputOffset = Long.parseLong(properties.getProperty("inputOffset"));
+            outputOffset = Long.parseLong(properties.getProperty("outputOffset"));
+            lines = Long.parseLong(properties.getProperty("lines"));
+            invalidLines = Long.parseLong(properties.getProperty("invalidLines"));
+        } catch (NumberFormatException ex) {
+            throw new IOException("The checkpoint " + checkpoint + " is invalid", ex);
+        }
+    }
+}
@@ -108,6 +108,59 @@ public class EquationManipulator {
         }
     }
     
+    /**
+     * Parses an equation and performs its operation in one step
+     * @param equationString a String that represents an equation
+     * @return the Fraction that represents the result of the operation,
+     * or null if the equation is invalid or can't be evaluated (for example when dividing by zero)
+     */
+    public Fraction evaluate(String equationString) {
+        return evaluate(getEquation(equationString));
+    }
+    
+    /**
+     * Performs the operation of an equation that was split up by getEquation()
+     * @param equation the parts of the equation
+     * @return the Fraction that represents the result of the operation,
+     * or null if the equation is empty or can't be evaluated (for example when dividing by zero)
+     */
+    public Fraction evaluate(String[] equation) {
+        if (equation.length == 0) {
+            return null;
+        }
+        try {
+            return performOperation(getFraction(equation[0]), getFraction(equation[2]), equation[1]);
+        } catch (IllegalArgumentException ex) {
+            // A number was too large to fit in a Fraction or the operation divided by zero
+            return null;
+        }
+    }
+    
+    /**
+     * Evaluates one line of a batch of equations and formats the result as a line of output
+     * @param line the line to evaluate, surrounding whitespace and a Windows line ending are ignored
+     * @return the output for the line, without a line break
+     */
+    public String evaluateLine(String line) {
+        return formatResult(line, evaluate(line.trim()));
+    }
+    
+    /**
+     * Formats the result of evaluating a line so that every batch mode writes the same output
+     * @param line the line that was evaluated
+     * @param result the result of evaluating the line, or null if it was invalid
+     * @return the result, or "Invalid equation: " followed by the line without its Windows line ending
+     */
+    public static String formatResult(String line, Fraction result) {
+        if (result != null) {
+            return result.toString();
+        }
+        if (line.endsWith("\r")) {
+            line = line.substring(0, line.length() - 1);
+        }
+        return "Invalid equation: " + line;
+    }
+
     /**
      * Helper method to determine if a user has provided a valid operator
      * @param operator
@@ -158,7 +211,12 @@ public class EquationManipulator {
      */
     private boolean isNumber(String input) { 
         // Ternary expression that basically is just checking if the number could potentially be negative
-        int index = input.charAt(0) == '-' ? 1 : 0;
+        int index = !input.isEmpty() && input.charAt(0) == '-' ? 1 : 0;
+        
+        // A number needs at least one digit, this rejects inputs like "" and "-"
+        if (index == input.length()) {
+            return false;
+        }
 
         for (int i = index; i < input.length(); i++) {
             if (!Character.isDigit(input.charAt(i))) {
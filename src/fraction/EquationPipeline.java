@@ -0,0 +1,223 @@
+package fraction;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Evaluates a stream of equations through three stages: parse, evaluate and format.
+ * Input lines are grouped into batches and each stage of a batch runs as its own task on the
+ * given Executor, so different batches move through the stages in parallel.
+ * <p>
+ * The number of batches in flight is limited. A batch only leaves the pipeline once the sink
+ * has accepted its output, so a slow sink makes process() stop reading input instead of letting
+ * work pile up. At most batchSize * (maxBatchesInFlight + 1) lines are read ahead of the sink: the
+ * batches in flight plus the batch that is waiting to enter the pipeline.
+ * @author mmb1995
+ *
+ */
+public class EquationPipeline {
+    private final EquationManipulator manipulator = new EquationManipulator();
+    private final Executor executor;
+    private final int batchSize;
+    private final int maxBatchesInFlight;
+    private final boolean ordered;
+
+    /**
+     * Creates a pipeline
+     * @param executor runs the stages, it can have any number of threads
+     * @param batchSize the number of lines passed between stages at a time
+     * @param maxBatchesInFlight the number of batches that can be in the pipeline at once
+     * @param ordered true if the output has to be in the same order as the input
+     */
+    public EquationPipeline(Executor executor, int batchSize, int maxBatchesInFlight, boolean ordered) {
+        if (executor == null || batchSize < 1 || maxBatchesInFlight < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.maxBatchesInFlight = maxBatchesInFlight;
+        this.ordered = ordered;
+    }
+
+    /**
+     * Evaluates every equation in lines and passes one line of output per equation to the sink.
+     * The output is the result of the operation, or a message if the equation was invalid.
+     * The sink is never called by more than one thread at a time.
+     * @param lines the equations to evaluate
+     * @param sink receives the output
+     * @return the number of lines passed to the sink
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     * @throws IllegalStateException if a stage or the sink failed
+     */
+    public long process(Iterator<String> lines, Consumer<String> sink) throws InterruptedException {
+        Run run = new Run(sink);
+        long sequence = 0;
+
+        while (lines.hasNext() && run.failure == null) {
+            String[] batch = new String[batchSize];
+            int size = 0;
+            while (size < batchSize && lines.hasNext()) {
+                batch[size++] = lines.next();
+            }
+
+            // Blocks while the pipeline is full
+            run.permits.acquire();
+            Batch next = new Batch(sequence++, size == batchSize ? batch : Arrays.copyOf(batch, size));
+            try {
+                executor.execute(() -> parse(run, next));
+            } catch (RuntimeException ex) {
+                run.permits.release();
+                throw ex;
+            }
+        }
+
+        // Wait for every batch to leave the pipeline
+        run.permits.acquire(maxBatchesInFlight);
+        if (run.failure != null) {
+            throw new IllegalStateException("The pipeline failed", run.failure);
+        }
+        return run.delivered;
+    }
+
+    /**
+     * First stage: splits each line into the parts of an equation
+     */
+    private void parse(Run run, Batch batch) {
+        try {
+            batch.equations = new String[batch.lines.length][];
+            for (int i = 0; i < batch.lines.length; i++) {
+                batch.equations[i] = parseLine(batch.lines[i]);
+            }
+            executor.execute(() -> evaluate(run, batch));
+        } catch (Throwable ex) {
+            run.fail(batch, ex);
+        }
+    }
+
+    /**
+     * Helper method that splits one line so that a line that can't be parsed only makes that line invalid
+     * @return the parts of the equation, or an empty array if the line is invalid
+     */
+    private String[] parseLine(String line) {
+        try {
+            return manipulator.getEquation(line.trim());
+        } catch (RuntimeException ex) {
+            return new String[0];
+        }
+    }
+
+    /**
+     * Second stage: performs the operation of each valid equation
+     */
+    private void evaluate(Run run, Batch batch) {
+        try {
+            batch.results = new Fraction[batch.equations.length];
+            for (int i = 0; i < batch.equations.length; i++) {
+                batch.results[i] = manipulator.evaluate(batch.equations[i]);
+            }
+            batch.equations = null;
+            executor.execute(() -> format(run, batch));
+        } catch (Throwable ex) {
+            run.fail(batch, ex);
+        }
+    }
+
+    /**
+     * Third stage: turns each result into a line of output
+     */
+    private void format(Run run, Batch batch) {
+        try {
+            batch.output = new String[batch.results.length];
+            for (int i = 0; i < batch.results.length; i++) {
+                batch.output[i] = EquationManipulator.formatResult(batch.lines[i], batch.results[i]);
+            }
+            batch.results = null;
+            run.deliver(batch);
+        } catch (Throwable ex) {
+            run.fail(batch, ex);
+        }
+    }
+
+    /**
+     * A group of lines moving through the stages together
+     */
+    private static class Batch {
+        private final long sequence;
+        private final String[] lines;
+        private String[][] equations;
+        private Fraction[] results;
+        private String[] output;
+
+        private Batch(long sequence, String[] lines) {
+            this.sequence = sequence;
+            this.lines = lines;
+        }
+    }
+
+    /**
+     * The state of a single call to process()
+     */
+    private class Run {
+        private final Semaphore permits = new Semaphore(maxBatchesInFlight);
+        private final Consumer<String> sink;
+        // Batches that finished early and are waiting for their turn when the output is ordered
+        private final TreeMap<Long, Batch> pending = new TreeMap<>();
+        private long nextSequence = 0;
+        private long delivered = 0;
+        private volatile Throwable failure;
+
+        private Run(Consumer<String> sink) {
+            this.sink = sink;
+        }
+
+        /**
+         * Records a failed batch. The batch still goes through delivery so it releases its
+         * permit and doesn't hold up the batches ordered after it.
+         */
+        private void fail(Batch batch, Throwable ex) {
+            synchronized (this) {
+                if (failure == null) {
+                    failure = ex;
+                }
+            }
+            batch.output = null;
+            deliver(batch);
+        }
+
+        /**
+         * Passes the output of a batch to the sink, after any earlier batches when the output is ordered
+         */
+        private synchronized void deliver(Batch batch) {
+            if (!ordered) {
+                emit(batch);
+                return;
+            }
+            pending.put(batch.sequence, batch);
+            while (!pending.isEmpty() && pending.firstKey() == nextSequence) {
+                emit(pending.pollFirstEntry().getValue());
+                nextSequence++;
+            }
+        }
+
+        private void emit(Batch batch) {
+            try {
+                if (failure == null && batch.output != null) {
+                    for (String line: batch.output) {
+                        sink.accept(line);
+                        delivered++;
+                    }
+                }
+            } catch (Throwable ex) {
+                if (failure == null) {
+                    failure = ex;
+                }
+            } finally {
+                permits.release();
+            }
+        }
+    }
+}
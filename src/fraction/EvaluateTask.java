@@ -0,0 +1,55 @@
+package fraction;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * Evaluates a function at a range of points by splitting the range in half until it is short enough
+ * to evaluate directly. Used by Polynomial and RationalFunction to evaluate many points on a ForkJoinPool.
+ * @author mmb1995
+ *
+ */
+class EvaluateTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    // Points are evaluated on a single thread once a range is this short
+    private static final int PARALLEL_THRESHOLD = 1024;
+
+    private final Function<Fraction, BigFraction> function;
+    private final Fraction[] points;
+    private final BigFraction[] results;
+    private final int from;
+    private final int to;
+
+    /**
+     * Creates a task that evaluates every point
+     * @param function the function to evaluate
+     * @param points the points
+     * @param results where the values are stored, in the same order as the points
+     */
+    EvaluateTask(Function<Fraction, BigFraction> function, Fraction[] points, BigFraction[] results) {
+        this(function, points, results, 0, points.length);
+    }
+
+    private EvaluateTask(Function<Fraction, BigFraction> function, Fraction[] points, BigFraction[] results,
+            int from, int to) {
+        this.function = function;
+        this.points = points;
+        this.results = results;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= PARALLEL_THRESHOLD) {
+            for (int i = from; i < to; i++) {
+                results[i] = function.apply(points[i]);
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        invokeAll(new EvaluateTask(function, points, results, from, middle),
+                new EvaluateTask(function, points, results, middle, to));
+    }
+}
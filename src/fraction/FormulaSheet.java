@@ -0,0 +1,353 @@
+package fraction;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * A sheet of named rational variables and formulas that depend on them, such as
+ * {@code total = a + b} and {@code share = total / n}. A formula has the same format as an equation
+ * except that its operands can also be the names of other variables.
+ * <p>
+ * Changing a value only marks the formulas that depend on it as dirty. The next time a value is read
+ * the dirty formulas are recomputed in dependency order, so the work depends on the number of affected
+ * formulas rather than the size of the sheet. Formulas that don't depend on each other can be
+ * recomputed in parallel with recompute(ExecutorService).
+ * @author mmb1995
+ *
+ */
+public class FormulaSheet {
+    private final EquationManipulator manipulator = new EquationManipulator();
+    private final Map<String, Cell> cells = new HashMap<>();
+    private final Set<Cell> dirty = new LinkedHashSet<>();
+
+    /**
+     * Sets the value of an input variable. If the variable was a formula it becomes an input.
+     * @param name the name of the variable
+     * @param value the new value
+     */
+    public void setValue(String name, Fraction value) {
+        if (value == null) {
+            throw new IllegalArgumentException("The value of " + name + " can't be null");
+        }
+        Cell cell = getOrCreateCell(name);
+        setDependencies(cell, null, new LinkedHashSet<Cell>());
+        cell.value = value;
+        dirty.remove(cell);
+        markDependentsDirty(cell);
+    }
+
+    /**
+     * Defines a variable as a formula, for example {@code define("total", "a + b")}.
+     * Variables that are used before they are given a value or formula have no value,
+     * and neither do the formulas that use them.
+     * @param name the name of the variable
+     * @param expression two operands separated by an operator. An operand is either a fraction
+     * in any of the formats accepted by EquationManipulator or the name of another variable
+     * @throws IllegalArgumentException if the expression is invalid or would create a circular dependency
+     */
+    public void define(String name, String expression) {
+        if (expression == null) {
+            throw new IllegalArgumentException("The formula for " + name + " can't be null");
+        }
+        String[] parts = expression.trim().split("[ ]+");
+        if (parts.length != 3 || !manipulator.isValidOperator(parts[1])) {
+            throw new IllegalArgumentException("Invalid formula for " + name + ": " + expression);
+        }
+
+        // Check everything before creating any cells so that an invalid formula leaves the sheet unchanged
+        checkName(name);
+        // An operand that isn't a fraction is the name of a variable
+        Fraction[] constants = new Fraction[] {manipulator.getFraction(parts[0]), manipulator.getFraction(parts[2])};
+        Cell existing = cells.get(name);
+        for (int i = 0; i < constants.length; i++) {
+            String token = parts[i * 2];
+            if (constants[i] == null) {
+                checkName(token);
+                // A variable that doesn't exist yet has no dependencies, so only existing ones can form a cycle
+                Cell referenced = cells.get(token);
+                boolean circular = token.equals(name)
+                        || (existing != null && referenced != null && dependsOn(referenced, existing));
+                if (circular) {
+                    throw new IllegalArgumentException("The formula for " + name + " has a circular dependency");
+                }
+            }
+        }
+
+        Cell cell = getOrCreateCell(name);
+        Operand[] operands = new Operand[2];
+        // A set, so a variable that is used twice like in x * x is only counted once
+        Set<Cell> dependencies = new LinkedHashSet<>();
+        for (int i = 0; i < constants.length; i++) {
+            if (constants[i] != null) {
+                operands[i] = new Operand(constants[i], null);
+            } else {
+                Cell dependency = getOrCreateCell(parts[i * 2]);
+                operands[i] = new Operand(null, dependency);
+                dependencies.add(dependency);
+            }
+        }
+
+        cell.operator = parts[1];
+        setDependencies(cell, operands, dependencies);
+        dirty.add(cell);
+        markDependentsDirty(cell);
+    }
+
+    /**
+     * Returns the names of every variable, including variables that are used by a formula but have no value
+     * @return the names in alphabetical order
+     */
+    public Set<String> getVariableNames() {
+        return Collections.unmodifiableSet(new TreeSet<>(cells.keySet()));
+    }
+
+    /**
+     * Returns the current value of a variable, recomputing any dirty formulas first
+     * @param name the name of the variable
+     * @return the value, or null if the variable is unknown or its formula can't be evaluated
+     */
+    public Fraction getValue(String name) {
+        Cell cell = cells.get(name);
+        if (cell == null) {
+            return null;
+        }
+        if (!dirty.isEmpty()) {
+            recompute();
+        }
+        return cell.value;
+    }
+
+    /**
+     * Recomputes every dirty formula on the calling thread
+     * @return the number of formulas that were recomputed
+     */
+    public int recompute() {
+        try {
+            return recompute(null);
+        } catch (InterruptedException ex) {
+            // Can't happen without an executor
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Recomputes every dirty formula. Formulas are processed one level of the dependency graph at a time,
+     * and the formulas in a level don't depend on each other so they are evaluated on the executor.
+     * @param executor evaluates independent formulas in parallel, or null to use the calling thread
+     * @return the number of formulas that were recomputed
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the executor
+     */
+    public int recompute(ExecutorService executor) throws InterruptedException {
+        // Count the dirty dependencies of every dirty formula
+        Map<Cell, Integer> waitingOn = new HashMap<>();
+        for (Cell cell: dirty) {
+            int count = 0;
+            for (Cell dependency: cell.dependencies) {
+                if (dirty.contains(dependency)) {
+                    count++;
+                }
+            }
+            waitingOn.put(cell, count);
+        }
+
+        List<Cell> level = new ArrayList<>();
+        for (Map.Entry<Cell, Integer> entry: waitingOn.entrySet()) {
+            if (entry.getValue() == 0) {
+                level.add(entry.getKey());
+            }
+        }
+
+        int recomputed = 0;
+        while (!level.isEmpty()) {
+            evaluateLevel(level, executor);
+            recomputed += level.size();
+
+            List<Cell> nextLevel = new ArrayList<>();
+            for (Cell cell: level) {
+                dirty.remove(cell);
+                for (Cell dependent: cell.dependents) {
+                    Integer count = waitingOn.get(dependent);
+                    if (count != null) {
+                        waitingOn.put(dependent, count - 1);
+                        if (count == 1) {
+                            nextLevel.add(dependent);
+                        }
+                    }
+                }
+            }
+            level = nextLevel;
+        }
+        return recomputed;
+    }
+
+    /**
+     * Helper method that evaluates a level of formulas, in parallel if there is an executor
+     */
+    private void evaluateLevel(List<Cell> level, ExecutorService executor) throws InterruptedException {
+        if (executor == null || level.size() == 1) {
+            for (Cell cell: level) {
+                cell.value = evaluate(cell);
+            }
+            return;
+        }
+
+        List<Callable<Fraction>> tasks = new ArrayList<>();
+        for (Cell cell: level) {
+            tasks.add(() -> evaluate(cell));
+        }
+        List<Future<Fraction>> results = executor.invokeAll(tasks);
+        for (int i = 0; i < level.size(); i++) {
+            try {
+                level.get(i).value = results.get(i).get();
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("Unable to evaluate " + level.get(i).name, ex.getCause());
+            }
+        }
+    }
+
+    /**
+     * Helper method that evaluates the formula of a cell
+     * @return the result, or null if an operand has no value or the operation divides by zero
+     */
+    private Fraction evaluate(Cell cell) {
+        if (cell.operands == null) {
+            // Input variables and variables that were never defined keep their value
+            return cell.value;
+        }
+        Fraction first = cell.operands[0].getValue();
+        Fraction second = cell.operands[1].getValue();
+        if (first == null || second == null) {
+            return null;
+        }
+        try {
+            return manipulator.performOperation(first, second, cell.operator);
+        } catch (IllegalArgumentException ex) {
+            // Division by zero
+            return null;
+        }
+    }
+
+    /**
+     * Helper method that marks everything that depends on the given cell as dirty
+     */
+    private void markDependentsDirty(Cell cell) {
+        ArrayDeque<Cell> stack = new ArrayDeque<>(cell.dependents);
+        while (!stack.isEmpty()) {
+            Cell dependent = stack.pop();
+            // Anything already dirty has had its dependents marked too
+            if (dirty.add(dependent)) {
+                stack.addAll(dependent.dependents);
+            }
+        }
+    }
+
+    /**
+     * Helper method that checks if from depends on target, directly or indirectly
+     */
+    private boolean dependsOn(Cell from, Cell target) {
+        ArrayDeque<Cell> stack = new ArrayDeque<>();
+        Set<Cell> visited = new LinkedHashSet<>();
+        stack.push(from);
+        while (!stack.isEmpty()) {
+            Cell cell = stack.pop();
+            if (cell == target) {
+                return true;
+            }
+            if (visited.add(cell)) {
+                stack.addAll(cell.dependencies);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Helper method that replaces the formula of a cell and updates the dependency graph
+     */
+    private void setDependencies(Cell cell, Operand[] operands, Set<Cell> dependencies) {
+        for (Cell dependency: cell.dependencies) {
+            dependency.dependents.remove(cell);
+        }
+        for (Cell dependency: dependencies) {
+            dependency.dependents.add(cell);
+        }
+        cell.operands = operands;
+        cell.dependencies = dependencies;
+    }
+
+    private Cell getOrCreateCell(String name) {
+        Cell cell = cells.get(name);
+        if (cell == null) {
+            checkName(name);
+            cell = new Cell(name);
+            cells.put(name, cell);
+        }
+        return cell;
+    }
+
+    private static void checkName(String name) {
+        if (!isValidName(name)) {
+            throw new IllegalArgumentException("Invalid variable name: " + name);
+        }
+    }
+
+    /**
+     * Helper method to check that a name starts with a letter and only contains letters, digits and underscores
+     */
+    private static boolean isValidName(String name) {
+        if (name == null || name.isEmpty() || !Character.isLetter(name.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A named variable. Input variables have no operands.
+     */
+    private static class Cell {
+        private final String name;
+        private volatile Fraction value;
+        private Operand[] operands;
+        private String operator;
+        private Set<Cell> dependencies = new LinkedHashSet<>();
+        private final Set<Cell> dependents = new LinkedHashSet<>();
+
+        private Cell(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * An operand of a formula, which is either a constant or a reference to another variable
+     */
+    private static class Operand {
+        private final Fraction constant;
+        private final Cell cell;
+
+        private Operand(Fraction constant, Cell cell) {
+            this.constant = constant;
+            this.cell = cell;
+        }
+
+        private Fraction getValue() {
+            return cell == null ? constant : cell.value;
+        }
+    }
+}
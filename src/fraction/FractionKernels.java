@@ -0,0 +1,214 @@
+package fraction;
+
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fused kernels for sums of products over arrays of fractions, such as the dot product sum(a[i] * b[i]).
+ * Computing these with Fraction.multiply() and Fraction.add() simplifies twice and allocates two objects
+ * per term, and overflows an int on long inputs. These kernels form each product in a long, add it to a
+ * running sum over a shared denominator, and only reduce the sum to lowest terms once at the end. The sum
+ * moves into BigIntegers if it outgrows a long, so results are always exact.
+ * <p>
+ * Every kernel also has a version that splits the arrays into ranges and sums them on a ForkJoinPool.
+ * @author mmb1995
+ *
+ */
+public final class FractionKernels {
+    // Ranges shorter than this are summed on a single thread
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    private FractionKernels() {
+    }
+
+    /**
+     * Returns the dot product sum(first[i] * second[i])
+     * @param first the first vector
+     * @param second the second vector, which has to be the same length as the first
+     * @return the exact dot product in lowest terms
+     */
+    public static BigFraction dotProduct(Fraction[] first, Fraction[] second) {
+        return sum(dotProductKernel(first, second), first.length, null);
+    }
+
+    /**
+     * Returns the dot product sum(first[i] * second[i]), splitting the work across the pool
+     */
+    public static BigFraction dotProduct(Fraction[] first, Fraction[] second, ForkJoinPool pool) {
+        return sum(dotProductKernel(first, second), first.length, pool);
+    }
+
+    /**
+     * Returns the dot product of two vectors given as separate numerator and denominator arrays,
+     * that is sum((firstNum[i] / firstDen[i]) * (secondNum[i] / secondDen[i]))
+     * @return the exact dot product in lowest terms
+     */
+    public static BigFraction dotProduct(int[] firstNum, int[] firstDen, int[] secondNum, int[] secondDen) {
+        return sum(dotProductKernel(firstNum, firstDen, secondNum, secondDen), firstNum.length, null);
+    }
+
+    /**
+     * Returns the dot product of two vectors given as separate numerator and denominator arrays,
+     * splitting the work across the pool
+     */
+    public static BigFraction dotProduct(int[] firstNum, int[] firstDen, int[] secondNum, int[] secondDen,
+            ForkJoinPool pool) {
+        return sum(dotProductKernel(firstNum, firstDen, secondNum, secondDen), firstNum.length, pool);
+    }
+
+    /**
+     * Returns the weighted sum sum(weights[i] * values[i])
+     * @param values the values to add up
+     * @param weights the weight of each value, which has to be the same length as values
+     * @return the exact weighted sum in lowest terms
+     */
+    public static BigFraction weightedSum(Fraction[] values, int[] weights) {
+        return sum(weightedSumKernel(values, weights), values.length, null);
+    }
+
+    /**
+     * Returns the weighted sum sum(weights[i] * values[i]), splitting the work across the pool
+     */
+    public static BigFraction weightedSum(Fraction[] values, int[] weights, ForkJoinPool pool) {
+        return sum(weightedSumKernel(values, weights), values.length, pool);
+    }
+
+    /**
+     * Returns the sum of products sum(factors[0][i] * factors[1][i] * ... * factors[k][i])
+     * @param factors the vectors to multiply element by element, which all have to be the same length
+     * @return the exact sum in lowest terms
+     */
+    public static BigFraction sumOfProducts(Fraction[]... factors) {
+        return sum(sumOfProductsKernel(factors), factors.length == 0 ? 0 : factors[0].length, null);
+    }
+
+    /**
+     * Returns the sum of products sum(factors[0][i] * factors[1][i] * ... * factors[k][i]),
+     * splitting the work across the pool
+     */
+    public static BigFraction sumOfProducts(ForkJoinPool pool, Fraction[]... factors) {
+        return sum(sumOfProductsKernel(factors), factors.length == 0 ? 0 : factors[0].length, pool);
+    }
+
+    /**
+     * Adds the terms of a range to an accumulator
+     */
+    private interface Kernel {
+        void accumulate(int from, int to, RationalAccumulator sum);
+    }
+
+    private static Kernel dotProductKernel(Fraction[] first, Fraction[] second) {
+        checkLengths(first.length, second.length);
+        return (from, to, sum) -> {
+            for (int i = from; i < to; i++) {
+                Fraction a = first[i];
+                Fraction b = second[i];
+                sum.add((long) a.getNumerator() * b.getNumerator(), (long) a.getDenominator() * b.getDenominator());
+            }
+        };
+    }
+
+    private static Kernel dotProductKernel(int[] firstNum, int[] firstDen, int[] secondNum, int[] secondDen) {
+        checkLengths(firstNum.length, firstDen.length);
+        checkLengths(firstNum.length, secondNum.length);
+        checkLengths(firstNum.length, secondDen.length);
+        return (from, to, sum) -> {
+            for (int i = from; i < to; i++) {
+                sum.add((long) firstNum[i] * secondNum[i], (long) firstDen[i] * secondDen[i]);
+            }
+        };
+    }
+
+    private static Kernel weightedSumKernel(Fraction[] values, int[] weights) {
+        checkLengths(values.length, weights.length);
+        return (from, to, sum) -> {
+            for (int i = from; i < to; i++) {
+                sum.add((long) weights[i] * values[i].getNumerator(), values[i].getDenominator());
+            }
+        };
+    }
+
+    private static Kernel sumOfProductsKernel(Fraction[][] factors) {
+        for (Fraction[] factor: factors) {
+            checkLengths(factors[0].length, factor.length);
+        }
+        return (from, to, sum) -> {
+            for (int i = from; i < to; i++) {
+                long num = 1;
+                long denom = 1;
+                try {
+                    for (Fraction[] factor: factors) {
+                        num = Math.multiplyExact(num, factor[i].getNumerator());
+                        denom = Math.multiplyExact(denom, factor[i].getDenominator());
+                    }
+                } catch (ArithmeticException ex) {
+                    // The product doesn't fit in a long
+                    addBigProduct(factors, i, sum);
+                    continue;
+                }
+                sum.add(num, denom);
+            }
+        };
+    }
+
+    private static void addBigProduct(Fraction[][] factors, int index, RationalAccumulator sum) {
+        BigInteger num = BigInteger.ONE;
+        BigInteger denom = BigInteger.ONE;
+        for (Fraction[] factor: factors) {
+            num = num.multiply(BigInteger.valueOf(factor[index].getNumerator()));
+            denom = denom.multiply(BigInteger.valueOf(factor[index].getDenominator()));
+        }
+        sum.add(num, denom);
+    }
+
+    private static void checkLengths(int expected, int actual) {
+        if (expected != actual) {
+            throw new IllegalArgumentException("The arrays must all be the same length");
+        }
+    }
+
+    /**
+     * Helper method that runs a kernel over the whole range, in parallel if there is a pool
+     */
+    private static BigFraction sum(Kernel kernel, int length, ForkJoinPool pool) {
+        if (pool == null || length <= PARALLEL_THRESHOLD) {
+            RationalAccumulator sum = new RationalAccumulator();
+            kernel.accumulate(0, length, sum);
+            return sum.toBigFraction();
+        }
+        return pool.invoke(new SumTask(kernel, 0, length)).toBigFraction();
+    }
+
+    /**
+     * Sums a range by splitting it in half until it is short enough to sum directly
+     */
+    private static class SumTask extends RecursiveTask<RationalAccumulator> {
+        private static final long serialVersionUID = 1L;
+
+        private final Kernel kernel;
+        private final int from;
+        private final int to;
+
+        private SumTask(Kernel kernel, int from, int to) {
+            this.kernel = kernel;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected RationalAccumulator compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                RationalAccumulator sum = new RationalAccumulator();
+                kernel.accumulate(from, to, sum);
+                return sum;
+            }
+            int middle = (from + to) >>> 1;
+            SumTask left = new SumTask(kernel, from, middle);
+            left.fork();
+            RationalAccumulator sum = new SumTask(kernel, middle, to).compute();
+            sum.add(left.join());
+            return sum;
+        }
+    }
+}
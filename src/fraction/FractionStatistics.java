@@ -0,0 +1,132 @@
+package fraction;
+
+/**
+ * Collects exact statistics (count, sum, mean, variance, min and max) over a stream of Fractions
+ * in a single pass. Only the running totals are kept, so memory use doesn't depend on the
+ * number of values. Statistics that were collected separately, for example one per shard of
+ * a large file, can be merged together with combine().
+ * @author mmb1995
+ *
+ */
+public class FractionStatistics {
+    private long count;
+    private final RationalAccumulator sum = new RationalAccumulator();
+    private final RationalAccumulator sumOfSquares = new RationalAccumulator();
+    private Fraction min;
+    private Fraction max;
+
+    /**
+     * Adds a value to the statistics
+     * @param value the Fraction to record
+     */
+    public void accept(Fraction value) {
+        if (value == null) {
+            throw new IllegalArgumentException();
+        }
+        long num = value.getNumerator();
+        long denom = value.getDenominator();
+        sum.add(num, denom);
+        sumOfSquares.add(num * num, denom * denom);
+        // Fractions are mutable, so keep copies that the caller can't change later
+        if (min == null || compare(value, min) < 0) {
+            min = copy(value);
+        }
+        if (max == null || compare(value, max) > 0) {
+            max = copy(value);
+        }
+        count++;
+    }
+
+    /**
+     * Merges the statistics collected by another instance into this one
+     * @param other the statistics to merge
+     * @return this instance
+     */
+    public FractionStatistics combine(FractionStatistics other) {
+        if (other == null) {
+            throw new IllegalArgumentException();
+        }
+        if (other.count == 0) {
+            return this;
+        }
+        sum.add(other.sum);
+        sumOfSquares.add(other.sumOfSquares);
+        if (min == null || compare(other.min, min) < 0) {
+            min = other.min;
+        }
+        if (max == null || compare(other.max, max) > 0) {
+            max = other.max;
+        }
+        count += other.count;
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the exact sum of the values
+     * @return the sum, which is 0 if no values were recorded
+     */
+    public BigFraction getSum() {
+        return sum.toBigFraction();
+    }
+
+    /**
+     * Returns the exact arithmetic mean of the values
+     * @return the mean, or null if no values were recorded
+     */
+    public BigFraction getMean() {
+        if (count == 0) {
+            return null;
+        }
+        return getSum().divide(BigFraction.valueOf(count, 1));
+    }
+
+    /**
+     * Returns the exact population variance of the values
+     * @return the variance, or null if no values were recorded
+     */
+    public BigFraction getVariance() {
+        if (count == 0) {
+            return null;
+        }
+        BigFraction mean = getMean();
+        BigFraction meanOfSquares = sumOfSquares.toBigFraction().divide(BigFraction.valueOf(count, 1));
+        return meanOfSquares.subtract(mean.multiply(mean));
+    }
+
+    /**
+     * Returns the smallest value that was recorded
+     * @return a copy of the minimum, or null if no values were recorded
+     */
+    public Fraction getMin() {
+        return min == null ? null : copy(min);
+    }
+
+    /**
+     * Returns the largest value that was recorded
+     * @return a copy of the maximum, or null if no values were recorded
+     */
+    public Fraction getMax() {
+        return max == null ? null : copy(max);
+    }
+
+    private static Fraction copy(Fraction fraction) {
+        return new Fraction(fraction.getNumerator(), fraction.getDenominator());
+    }
+
+    /**
+     * Helper method that compares two fractions exactly by cross multiplying
+     * @return a negative number, zero or a positive number if first is less than, equal to or
+     * greater than second
+     */
+    private static int compare(Fraction first, Fraction second) {
+        long left = (long) first.getNumerator() * second.getDenominator();
+        long right = (long) second.getNumerator() * first.getDenominator();
+        // Cross multiplying flips the comparison when exactly one of the denominators is negative
+        boolean flip = (first.getDenominator() < 0) != (second.getDenominator() < 0);
+        return flip ? Long.compare(right, left) : Long.compare(left, right);
+    }
+}
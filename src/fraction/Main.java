@@ -1,6 +1,14 @@
 package fraction;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
 import fraction.Fraction;
 
 /**
@@ -10,6 +18,12 @@ import fraction.Fraction;
  * a fraction (x/y), or a mixed number (a_x/y), and an operator (+, -, *, /).
  * Note: When passing in arguments from the command line if you want to perform multiplication you need 
  * to enter the operator wrapped in quotes as "*", otherwise the shell won't interpret the symbol correctly
+ * <p>
+ * Batch usage: {@code --stats <file>} reads one fraction per line and reports exact statistics for the file.
+ * {@code --batch <input> <output> [--unordered]} evaluates one equation per line on every core and writes
+ * one result per line, in input order unless --unordered is given.
+ * {@code --checkpoint <input> <output> <checkpointFile>} evaluates the file on a single thread and records its
+ * progress, so running the same command again after the job was killed picks up where it stopped.
  * @author mmb1995
  *
  */
@@ -19,7 +33,21 @@ public class Main {
         // Gets an EquationManipulator that will handle the operation logic
         EquationManipulator manipulator = new EquationManipulator();
         
-        if (args.length == 3) {
+        if (args.length == 2 && args[0].equals("--stats")) {
+            // User wants statistics over a file of fractions
+            handleStatistics(args[1], manipulator);
+        } else if ((args.length == 3 || args.length == 4) && args[0].equals("--batch")) {
+            // User wants to evaluate a file of equations
+            if (args.length == 4 && !args[3].equals("--unordered")) {
+                System.out.println("Oh no! I don't know the option " + args[3]
+                        + "\nI can only run batches like this: --batch <input> <output> [--unordered]");
+                return;
+            }
+            handleBatch(args[1], args[2], args.length == 3);
+        } else if (args.length == 4 && args[0].equals("--checkpoint")) {
+            // User wants to evaluate a file of equations and be able to resume the job
+            handleCheckpointedBatch(args[1], args[2], args[3]);
+        } else if (args.length == 3) {
             // arguments were passed in from the command line
             System.out.println("It looks like you passed in some arguments. Let me fetch those for you.");
             checkPassedInArguments(args, manipulator);
@@ -160,6 +188,102 @@ public class Main {
         }
     }  
     
+    /**
+     * Reads a file containing one fraction per line and prints exact statistics over all of them.
+     * The file is read in a single pass, so it doesn't need to fit in memory.
+     * Blank lines are skipped and lines that can't be read as a fraction are counted as invalid.
+     * @param path the path of the file to read
+     * @param manipulator an EquationManipulator used to parse each line
+     */
+    public static void handleStatistics(String path, EquationManipulator manipulator) {
+        FractionStatistics statistics = new FractionStatistics();
+        long invalidLines = 0;
+        
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                
+                Fraction value;
+                try {
+                    value = manipulator.getFraction(line);
+                } catch (IllegalArgumentException ex) {
+                    // The number is too large or the denominator is zero
+                    value = null;
+                }
+                
+                if (value == null) {
+                    invalidLines++;
+                } else {
+                    statistics.accept(value);
+                }
+            }
+        } catch (IOException ex) {
+            System.out.println("Oh no! I wasn't able to read the file " + path + ": " + ex.getMessage());
+            return;
+        }
+        
+        printStatistics(statistics, invalidLines);
+    }
+    
+    /**
+     * Prints the statistics collected from a file
+     * @param statistics the collected statistics
+     * @param invalidLines the number of lines that couldn't be read
+     */
+    private static void printStatistics(FractionStatistics statistics, long invalidLines) {
+        System.out.println("Count: " + statistics.getCount());
+        System.out.println("Invalid lines: " + invalidLines);
+        System.out.println("Sum: " + statistics.getSum());
+        if (statistics.getCount() > 0) {
+            System.out.println("Mean: " + statistics.getMean());
+            System.out.println("Variance: " + statistics.getVariance());
+            // Print the extremes in lowest terms like the other values
+            System.out.println("Min: " + BigFraction.valueOf(statistics.getMin()));
+            System.out.println("Max: " + BigFraction.valueOf(statistics.getMax()));
+        }
+    }
+    
+    /**
+     * Evaluates a file containing one equation per line in parallel and writes the results to another file
+     * @param inputPath the file to read
+     * @param outputPath the file to write the results to
+     * @param ordered true if the results have to be written in the same order as the input
+     */
+    public static void handleBatch(String inputPath, String outputPath, boolean ordered) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        ParallelBatchEvaluator evaluator = new ParallelBatchEvaluator(pool, ParallelBatchEvaluator.DEFAULT_CHUNK_SIZE,
+                2 * pool.getParallelism(), ordered);
+        
+        try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(Paths.get(outputPath)))) {
+            long lines = evaluator.evaluate(Paths.get(inputPath), output);
+            System.out.println("Evaluated " + lines + " equations into " + outputPath);
+        } catch (IOException ex) {
+            System.out.println("Oh no! I wasn't able to evaluate the file " + inputPath + ": " + ex.getMessage());
+        }
+    }
+    
+    /**
+     * Evaluates a file containing one equation per line, writing a checkpoint as it goes.
+     * If a checkpoint from an earlier run exists the evaluation resumes from it.
+     * @param inputPath the file to read
+     * @param outputPath the file to write the results to
+     * @param checkpointPath the file that records the progress of the job
+     */
+    public static void handleCheckpointedBatch(String inputPath, String outputPath, String checkpointPath) {
+        CheckpointedBatchEvaluator evaluator = new CheckpointedBatchEvaluator();
+        try {
+            long lines = evaluator.evaluate(Paths.get(inputPath), Paths.get(outputPath), Paths.get(checkpointPath));
+            System.out.println("Evaluated " + lines + " equations into " + outputPath
+                    + " (" + evaluator.getInvalidLines() + " invalid)");
+        } catch (IOException ex) {
+            System.out.println("Oh no! I wasn't able to evaluate the file " + inputPath + ": " + ex.getMessage());
+        }
+    }
+    
     /**
      * Ends the program when prompted by the user
      * @param input a Scanner
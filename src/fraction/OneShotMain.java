@@ -0,0 +1,50 @@
+package fraction;
+
+/**
+ * A lean entry point for scripts that evaluate a single equation, for example
+ * {@code java fraction.OneShotMain 1/2 "*" 3/4}. It prints only the result, or an error on standard
+ * error with exit status 1, and never prompts for input.
+ * <p>
+ * Most of the time of a one-shot run is spent starting the JVM, so this class avoids Main's interactive
+ * machinery (Scanner, banners) and anything that would load extra classes before the result is printed,
+ * such as regular expressions or lambdas. It pairs well with a class data sharing archive, see
+ * scripts/oneshot-cds.sh.
+ * @author mmb1995
+ *
+ */
+public class OneShotMain {
+
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            fail("Usage: OneShotMain <fraction> <operator> <fraction>");
+        }
+
+        EquationManipulator manipulator = new EquationManipulator();
+        Fraction result = null;
+        try {
+            Fraction first = manipulator.getFraction(args[0]);
+            Fraction second = manipulator.getFraction(args[2]);
+            if (first != null && second != null && manipulator.isValidOperator(args[1])) {
+                result = manipulator.performOperation(first, second, args[1]);
+            }
+        } catch (RuntimeException ex) {
+            // A number was too large or the operation divided by zero. Scripts only look at the exit
+            // status, so any other parsing failure is reported the same way instead of as a stack trace.
+            result = null;
+        }
+
+        if (result == null) {
+            fail("Invalid equation: " + args[0] + " " + args[1] + " " + args[2]);
+        }
+        System.out.println(result.toString());
+    }
+
+    /**
+     * Prints an error message and exits with a non-zero status
+     * @param message the message to print
+     */
+    private static void fail(String message) {
+        System.err.println(message);
+        System.exit(1);
+    }
+}
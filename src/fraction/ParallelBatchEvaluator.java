@@ -0,0 +1,209 @@
+package fraction;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Evaluates a file containing one equation per line using every thread of a ForkJoinPool.
+ * The file is split into chunks of roughly chunkSize bytes that always end on a line break,
+ * and each chunk is read and evaluated as a separate task. The output has one line per input
+ * line: the result of the operation, or a message if the equation was invalid.
+ * <p>
+ * At most maxChunksInFlight chunks are read or waiting to be written at any time, which bounds
+ * memory use. In ordered mode finished chunks wait for the chunks before them, in unordered mode
+ * each chunk is written as soon as it is done.
+ * @author mmb1995
+ *
+ */
+public class ParallelBatchEvaluator {
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private final EquationManipulator manipulator = new EquationManipulator();
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+    private final boolean ordered;
+
+    /**
+     * Creates an evaluator
+     * @param pool the pool that evaluates the chunks
+     * @param chunkSize the approximate number of bytes in each chunk
+     * @param maxChunksInFlight the number of chunks that can be held in memory at once
+     * @param ordered true if the output has to be in the same order as the input
+     */
+    public ParallelBatchEvaluator(ForkJoinPool pool, int chunkSize, int maxChunksInFlight, boolean ordered) {
+        if (pool == null || chunkSize < 1 || maxChunksInFlight < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = maxChunksInFlight;
+        this.ordered = ordered;
+    }
+
+    /**
+     * Creates an evaluator that uses the common pool, keeps two chunks per thread in flight
+     * and keeps the output in input order
+     */
+    public ParallelBatchEvaluator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE, 2 * ForkJoinPool.getCommonPoolParallelism(), true);
+    }
+
+    /**
+     * Evaluates every equation in the input file and writes the results to output
+     * @param input the file to read
+     * @param output where the results are written, it is not closed
+     * @return the number of lines evaluated
+     * @throws IOException if the file can't be read or the output can't be written
+     */
+    public long evaluate(Path input, OutputStream output) throws IOException {
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = channel.size();
+            CompletionService<Chunk> completed = new ExecutorCompletionService<>(pool);
+            ArrayDeque<Future<Chunk>> inFlight = new ArrayDeque<>();
+            long lines = 0;
+            long start = 0;
+
+            while (start < size) {
+                long end = findChunkEnd(channel, start + chunkSize, size);
+                if (inFlight.size() == maxChunksInFlight) {
+                    lines += write(nextFinished(inFlight, completed), output);
+                }
+                Callable<Chunk> task = new ChunkTask(channel, start, end);
+                inFlight.add(ordered ? pool.submit(task) : completed.submit(task));
+                start = end;
+            }
+
+            while (!inFlight.isEmpty()) {
+                lines += write(nextFinished(inFlight, completed), output);
+            }
+            return lines;
+        }
+    }
+
+    /**
+     * Helper method that waits for the next chunk that can be written. In ordered mode that's the
+     * oldest chunk, otherwise it's whichever chunk finishes first.
+     */
+    private Chunk nextFinished(ArrayDeque<Future<Chunk>> inFlight, CompletionService<Chunk> completed)
+            throws IOException {
+        try {
+            if (ordered) {
+                return inFlight.poll().get();
+            }
+            Future<Chunk> done = completed.take();
+            inFlight.remove(done);
+            return done.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while evaluating equations");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw new IllegalStateException("Unable to evaluate a chunk of the file", ex.getCause());
+        }
+    }
+
+    private static long write(Chunk chunk, OutputStream output) throws IOException {
+        output.write(chunk.output);
+        return chunk.lines;
+    }
+
+    /**
+     * Helper method that finds where a chunk should end so it doesn't split a line
+     * @param channel the file being read
+     * @param position where the chunk would end if lines didn't matter
+     * @param size the size of the file
+     * @return the position just after the first line break at or after position, or size if there is none
+     */
+    private static long findChunkEnd(FileChannel channel, long position, long size) throws IOException {
+        if (position >= size) {
+            return size;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * The output of a finished chunk
+     */
+    private static class Chunk {
+        private final byte[] output;
+        private final long lines;
+
+        private Chunk(byte[] output, long lines) {
+            this.output = output;
+            this.lines = lines;
+        }
+    }
+
+    /**
+     * Reads one chunk of the file and evaluates each of its lines
+     */
+    private class ChunkTask implements Callable<Chunk> {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+
+        private ChunkTask(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public Chunk call() throws IOException {
+            // Positional reads don't move the channel's position, so chunks can be read concurrently
+            ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    break;
+                }
+            }
+            byte[] bytes = buffer.array();
+            int length = buffer.position();
+
+            StringBuilder builder = new StringBuilder(length);
+            long lines = 0;
+            int lineStart = 0;
+            while (lineStart < length) {
+                int lineEnd = lineStart;
+                while (lineEnd < length && bytes[lineEnd] != '\n') {
+                    lineEnd++;
+                }
+                String line = new String(bytes, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+                builder.append(manipulator.evaluateLine(line)).append('\n');
+                lines++;
+                lineStart = lineEnd + 1;
+            }
+            return new Chunk(builder.toString().getBytes(StandardCharsets.UTF_8), lines);
+        }
+    }
+}
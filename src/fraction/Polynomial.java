@@ -0,0 +1,240 @@
+package fraction;
+
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * An immutable polynomial with Fraction coefficients that can be evaluated exactly at many points.
+ * <p>
+ * The coefficients are compiled once: they are multiplied by the lcm L of their denominators so that
+ * every coefficient c[i] is an integer. Evaluating at x = p/q then only needs integer arithmetic using
+ * Horner's scheme in homogeneous form,
+ * {@code P(p/q) = (c[n]p^n + c[n-1]p^(n-1)q + ... + c[0]q^n) / (L q^n)},
+ * and the result is reduced once at the end. The arithmetic is done in longs and moves to BigIntegers
+ * only for points where it would overflow.
+ * @author mmb1995
+ *
+ */
+public class Polynomial {
+    private final Fraction[] coefficients;
+    private final BigInteger[] bigCoefficients;
+    private final BigInteger commonDenominator;
+    // Copies of the compiled coefficients for the fast path, or null if they don't fit in a long
+    private final long[] longCoefficients;
+    private final long longCommonDenominator;
+
+    /**
+     * Creates a polynomial
+     * @param coefficients the coefficients, starting with the constant term
+     */
+    public Polynomial(Fraction... coefficients) {
+        for (Fraction coefficient: coefficients) {
+            if (coefficient == null) {
+                throw new IllegalArgumentException();
+            }
+        }
+        // Trailing zero coefficients don't change the degree
+        int length = coefficients.length;
+        while (length > 0 && coefficients[length - 1].getNumerator() == 0) {
+            length--;
+        }
+
+        this.coefficients = new Fraction[length];
+        BigInteger lcm = BigInteger.ONE;
+        for (int i = 0; i < length; i++) {
+            Fraction coefficient = coefficients[i];
+            this.coefficients[i] = new Fraction(coefficient.getNumerator(), coefficient.getDenominator());
+            BigInteger denominator = BigInteger.valueOf(coefficient.getDenominator()).abs();
+            lcm = lcm.divide(lcm.gcd(denominator)).multiply(denominator);
+        }
+
+        this.commonDenominator = lcm;
+        this.bigCoefficients = new BigInteger[length];
+        boolean fitsInLong = lcm.bitLength() < 63;
+        for (int i = 0; i < length; i++) {
+            BigFraction coefficient = BigFraction.valueOf(this.coefficients[i]);
+            bigCoefficients[i] = coefficient.getNumerator().multiply(lcm.divide(coefficient.getDenominator()));
+            fitsInLong &= bigCoefficients[i].bitLength() < 63;
+        }
+
+        if (fitsInLong) {
+            longCoefficients = new long[length];
+            for (int i = 0; i < length; i++) {
+                longCoefficients[i] = bigCoefficients[i].longValue();
+            }
+            longCommonDenominator = lcm.longValue();
+        } else {
+            longCoefficients = null;
+            longCommonDenominator = 0;
+        }
+    }
+
+    /**
+     * Returns the degree of the polynomial
+     * @return the degree, or -1 for the zero polynomial
+     */
+    public int getDegree() {
+        return coefficients.length - 1;
+    }
+
+    /**
+     * Returns the coefficient of x^power
+     * @param power the power of x
+     * @return the coefficient, which is 0 for powers above the degree
+     */
+    public Fraction getCoefficient(int power) {
+        if (power < 0) {
+            throw new IllegalArgumentException();
+        }
+        if (power >= coefficients.length) {
+            return new Fraction(0);
+        }
+        Fraction coefficient = coefficients[power];
+        return new Fraction(coefficient.getNumerator(), coefficient.getDenominator());
+    }
+
+    /**
+     * Evaluates the polynomial at a point
+     * @param x the point
+     * @return the exact value in lowest terms
+     */
+    public BigFraction evaluate(Fraction x) {
+        if (x == null) {
+            throw new IllegalArgumentException();
+        }
+        if (coefficients.length == 0) {
+            return BigFraction.ZERO;
+        }
+        long p = x.getNumerator();
+        long q = x.getDenominator();
+        // Keep the sign on the numerator
+        if (q < 0) {
+            p = -p;
+            q = -q;
+        }
+
+        if (longCoefficients != null) {
+            try {
+                return evaluateExact(p, q);
+            } catch (ArithmeticException ex) {
+                // An intermediate value overflowed a long, use BigIntegers for this point
+            }
+        }
+        return evaluateBig(BigInteger.valueOf(p), BigInteger.valueOf(q));
+    }
+
+    /**
+     * Evaluates the polynomial at every point
+     * @param points the points
+     * @return the values, in the same order as the points
+     */
+    public BigFraction[] evaluateAll(Fraction[] points) {
+        BigFraction[] results = new BigFraction[points.length];
+        for (int i = 0; i < points.length; i++) {
+            results[i] = evaluate(points[i]);
+        }
+        return results;
+    }
+
+    /**
+     * Evaluates the polynomial at every point, splitting the points across the pool
+     * @param points the points
+     * @param pool the pool that evaluates the points
+     * @return the values, in the same order as the points
+     */
+    public BigFraction[] evaluateAll(Fraction[] points, ForkJoinPool pool) {
+        BigFraction[] results = new BigFraction[points.length];
+        pool.invoke(new EvaluateTask(this::evaluate, points, results));
+        return results;
+    }
+
+    /**
+     * Helper method that evaluates the polynomial in longs
+     * @throws ArithmeticException if an intermediate value overflows
+     */
+    private BigFraction evaluateExact(long p, long q) {
+        long qPower = powExact(q, getDegree());
+        return BigFraction.valueOf(hornerExact(p, q), Math.multiplyExact(longCommonDenominator, qPower));
+    }
+
+    /**
+     * Helper method that evaluates the polynomial in BigIntegers
+     */
+    private BigFraction evaluateBig(BigInteger p, BigInteger q) {
+        return BigFraction.valueOf(hornerBig(p, q), commonDenominator.multiply(q.pow(getDegree())));
+    }
+
+    /**
+     * Returns true if the compiled coefficients and their common denominator fit in longs,
+     * which is when hornerExact() can be used
+     */
+    boolean fitsInLong() {
+        return longCoefficients != null;
+    }
+
+    /**
+     * Returns L, the lcm of the denominators of the coefficients
+     */
+    BigInteger getCommonDenominator() {
+        return commonDenominator;
+    }
+
+    /**
+     * Returns L as a long, only valid if fitsInLong() is true
+     */
+    long getLongCommonDenominator() {
+        return longCommonDenominator;
+    }
+
+    /**
+     * Runs Horner's scheme in longs. The value of the polynomial at p/q is the result divided by
+     * L q^n, where n is the degree.
+     * @param p the numerator of the point
+     * @param q the denominator of the point, which has to be positive
+     * @return c[n]p^n + c[n-1]p^(n-1)q + ... + c[0]q^n, or 0 for the zero polynomial
+     * @throws ArithmeticException if an intermediate value overflows
+     */
+    long hornerExact(long p, long q) {
+        int degree = longCoefficients.length - 1;
+        if (degree < 0) {
+            return 0;
+        }
+        long accumulator = longCoefficients[degree];
+        long qPower = 1;
+        for (int i = degree - 1; i >= 0; i--) {
+            qPower = Math.multiplyExact(qPower, q);
+            accumulator = Math.addExact(Math.multiplyExact(accumulator, p),
+                    Math.multiplyExact(longCoefficients[i], qPower));
+        }
+        return accumulator;
+    }
+
+    /**
+     * Runs Horner's scheme in BigIntegers, see hornerExact()
+     */
+    BigInteger hornerBig(BigInteger p, BigInteger q) {
+        int degree = bigCoefficients.length - 1;
+        if (degree < 0) {
+            return BigInteger.ZERO;
+        }
+        BigInteger accumulator = bigCoefficients[degree];
+        BigInteger qPower = BigInteger.ONE;
+        for (int i = degree - 1; i >= 0; i--) {
+            qPower = qPower.multiply(q);
+            accumulator = accumulator.multiply(p).add(bigCoefficients[i].multiply(qPower));
+        }
+        return accumulator;
+    }
+
+    /**
+     * Returns base^exponent
+     * @throws ArithmeticException if the result overflows
+     */
+    static long powExact(long base, int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result = Math.multiplyExact(result, base);
+        }
+        return result;
+    }
+}
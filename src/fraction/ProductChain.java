@@ -0,0 +1,177 @@
+package fraction;
+
+import java.math.BigInteger;
+
+/**
+ * Evaluates a chain of multiplications and divisions such as {@code 2/3 * 9/4 / 3/8}.
+ * Fraction.multiply() forms the full products first and only simplifies afterwards, so long chains
+ * overflow even when the final result is small. Before multiplying, a ProductChain cancels each
+ * incoming numerator against the running denominator and each incoming denominator against the
+ * running numerator. The running product therefore stays in lowest terms, intermediates never grow
+ * larger than they have to, and every gcd is taken on values no larger than the operands.
+ * <p>
+ * The product is kept in longs. If the reduced product itself doesn't fit, the chain carries on with
+ * BigIntegers and goes back to longs once the product fits again.
+ * @author mmb1995
+ *
+ */
+public class ProductChain {
+    private final EquationManipulator manipulator = new EquationManipulator();
+
+    // Always in lowest terms with a positive denominator
+    private long numerator = 1;
+    private long denominator = 1;
+    // The product once it no longer fits in a long, null while the long fields are in use
+    private BigInteger bigNumerator;
+    private BigInteger bigDenominator;
+
+    /**
+     * Multiplies the running product by the given fraction
+     * @param other the Fraction to multiply by
+     * @return this chain
+     */
+    public ProductChain multiply(Fraction other) {
+        if (other == null) {
+            throw new IllegalArgumentException();
+        }
+        multiplyBy(other.getNumerator(), other.getDenominator());
+        return this;
+    }
+
+    /**
+     * Divides the running product by the given fraction
+     * @param other the Fraction to divide by
+     * @return this chain
+     */
+    public ProductChain divide(Fraction other) {
+        if (other == null) {
+            throw new IllegalArgumentException();
+        }
+        if (other.getNumerator() == 0) {
+            throw new IllegalArgumentException("Can't divide by zero.");
+        }
+        multiplyBy(other.getDenominator(), other.getNumerator());
+        return this;
+    }
+
+    /**
+     * Evaluates a chain of fractions separated by * and / from left to right, for example {@code 1/2 * 3 / 1_1/4}
+     * @param chainString the operands and operators separated by spaces
+     * @return the result, or null if the chain contains anything other than fractions, * and /,
+     * or if it has a zero denominator or divides by zero
+     */
+    public static BigFraction evaluate(String chainString) {
+        if (chainString == null || chainString.trim().isEmpty()) {
+            return null;
+        }
+        String[] parts = chainString.trim().split("[ ]+");
+        if (parts.length % 2 == 0) {
+            return null;
+        }
+
+        ProductChain chain = new ProductChain();
+        Fraction first = chain.parseOperand(parts[0]);
+        if (first == null) {
+            return null;
+        }
+        chain.multiply(first);
+        for (int i = 1; i < parts.length; i += 2) {
+            Fraction operand = chain.parseOperand(parts[i + 1]);
+            if (operand == null) {
+                return null;
+            }
+            if (parts[i].equals("*")) {
+                chain.multiply(operand);
+            } else if (parts[i].equals("/") && operand.getNumerator() != 0) {
+                chain.divide(operand);
+            } else {
+                // An unknown operator or a division by zero
+                return null;
+            }
+        }
+        return chain.toBigFraction();
+    }
+
+    /**
+     * Returns the running product
+     * @return a BigFraction in lowest terms
+     */
+    public BigFraction toBigFraction() {
+        if (bigNumerator != null) {
+            return BigFraction.valueOf(bigNumerator, bigDenominator);
+        }
+        return BigFraction.valueOf(numerator, denominator);
+    }
+
+    /**
+     * Returns the running product as a Fraction
+     * @return a Fraction in lowest terms
+     * @throws ArithmeticException if the numerator or denominator doesn't fit in an int
+     */
+    public Fraction toFraction() {
+        if (bigNumerator != null) {
+            throw new ArithmeticException("integer overflow");
+        }
+        return new Fraction(Math.toIntExact(numerator), Math.toIntExact(denominator));
+    }
+
+    /**
+     * Helper method that cross cancels num/denom against the running product and then multiplies
+     */
+    private void multiplyBy(long num, long denom) {
+        if (denom < 0) {
+            num = -num;
+            denom = -denom;
+        }
+        // Bring the incoming fraction to lowest terms so the product stays in lowest terms. Fractions
+        // aren't simplified when they are created, so this can't be skipped even though it costs about
+        // a tenth of the time of each step
+        long gcd = RationalAccumulator.gcd(num, denom);
+        num /= gcd;
+        denom /= gcd;
+
+        if (bigNumerator == null) {
+            long numeratorGcd = RationalAccumulator.gcd(numerator, denom);
+            long denominatorGcd = RationalAccumulator.gcd(num, denominator);
+            try {
+                long newNumerator = Math.multiplyExact(numerator / numeratorGcd, num / denominatorGcd);
+                long newDenominator = Math.multiplyExact(denominator / denominatorGcd, denom / numeratorGcd);
+                numerator = newNumerator;
+                denominator = newDenominator;
+                return;
+            } catch (ArithmeticException ex) {
+                // The reduced product doesn't fit in a long, carry on with BigIntegers
+                bigNumerator = BigInteger.valueOf(numerator);
+                bigDenominator = BigInteger.valueOf(denominator);
+            }
+        }
+        multiplyBigBy(BigInteger.valueOf(num), BigInteger.valueOf(denom));
+    }
+
+    /**
+     * Helper method that does the same as multiplyBy() once the product has moved to BigIntegers
+     */
+    private void multiplyBigBy(BigInteger num, BigInteger denom) {
+        BigInteger numeratorGcd = bigNumerator.gcd(denom);
+        BigInteger denominatorGcd = num.gcd(bigDenominator);
+        bigNumerator = bigNumerator.divide(numeratorGcd).multiply(num.divide(denominatorGcd));
+        bigDenominator = bigDenominator.divide(denominatorGcd).multiply(denom.divide(numeratorGcd));
+
+        // Go back to longs once divisions have made the product small again
+        if (bigNumerator.bitLength() < 64 && bigDenominator.bitLength() < 64) {
+            numerator = bigNumerator.longValue();
+            denominator = bigDenominator.longValue();
+            bigNumerator = null;
+            bigDenominator = null;
+        }
+    }
+
+    private Fraction parseOperand(String token) {
+        try {
+            return manipulator.getFraction(token);
+        } catch (IllegalArgumentException ex) {
+            // The number is too large to fit in a Fraction or the denominator is zero
+            return null;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package fraction;
+
+import java.math.BigInteger;
+
+/**
+ * A mutable running sum of fractions. Terms are added over a shared denominator without being
+ * reduced, so repeated additions don't allocate. The sum is kept in two longs and is only
+ * moved into BigIntegers once it no longer fits, which keeps the result exact.
+ * @author mmb1995
+ *
+ */
+final class RationalAccumulator {
+    private long numerator = 0;
+    private long denominator = 1;
+
+    // These are only set once the sum has outgrown the long fields
+    private BigInteger bigNumerator;
+    private BigInteger bigDenominator;
+
+    /**
+     * Adds num/denom to the running sum
+     * @param num the numerator of the term
+     * @param denom the denominator of the term, which can't be zero
+     */
+    void add(long num, long denom) {
+        if (denom == 0) {
+            throw new IllegalArgumentException("The denominator of a fraction can't be zero.");
+        }
+        if (bigNumerator == null) {
+            try {
+                addExact(num, denom);
+                return;
+            } catch (ArithmeticException ex) {
+                // Reducing the running sum is usually enough to make room for the term
+                reduce();
+                try {
+                    addExact(num, denom);
+                    return;
+                } catch (ArithmeticException stillTooLarge) {
+                    bigNumerator = BigInteger.valueOf(numerator);
+                    bigDenominator = BigInteger.valueOf(denominator);
+                }
+            }
+        }
+        addBig(BigInteger.valueOf(num), BigInteger.valueOf(denom));
+    }
+
+    /**
+     * Adds num/denom to the running sum, for terms that don't fit in a long
+     * @param num the numerator of the term
+     * @param denom the denominator of the term, which can't be zero
+     */
+    void add(BigInteger num, BigInteger denom) {
+        if (denom.signum() == 0) {
+            throw new IllegalArgumentException("The denominator of a fraction can't be zero.");
+        }
+        if (bigNumerator == null) {
+            bigNumerator = BigInteger.valueOf(numerator);
+            bigDenominator = BigInteger.valueOf(denominator);
+        }
+        addBig(num, denom);
+    }
+
+    /**
+     * Adds the running sum of another accumulator to this one
+     * @param other the accumulator to merge into this one
+     */
+    void add(RationalAccumulator other) {
+        if (other.bigNumerator == null) {
+            add(other.numerator, other.denominator);
+        } else {
+            add(other.bigNumerator, other.bigDenominator);
+        }
+    }
+
+    /**
+     * Normalizes the running sum and returns it
+     * @return a BigFraction in lowest terms
+     */
+    BigFraction toBigFraction() {
+        if (bigNumerator == null) {
+            return BigFraction.valueOf(numerator, denominator);
+        }
+        return BigFraction.valueOf(bigNumerator, bigDenominator);
+    }
+
+    /**
+     * Helper method that adds a term using long arithmetic. The fields are only
+     * updated once every step has succeeded.
+     * @throws ArithmeticException if an intermediate value overflows a long
+     */
+    private void addExact(long num, long denom) {
+        // Keeping the denominator positive lets terms with the same denominator take the fast path
+        if (denom < 0) {
+            num = Math.negateExact(num);
+            denom = Math.negateExact(denom);
+        }
+        if (denom == denominator) {
+            numerator = Math.addExact(numerator, num);
+            return;
+        }
+        long gcd = gcd(denominator, denom);
+        long myMultiple = denom / gcd;
+        long otherMultiple = denominator / gcd;
+        long newNumerator = Math.addExact(Math.multiplyExact(numerator, myMultiple),
+                Math.multiplyExact(num, otherMultiple));
+        long newDenominator = Math.multiplyExact(denominator, myMultiple);
+        numerator = newNumerator;
+        denominator = newDenominator;
+    }
+
+    /**
+     * Helper method that adds a term once the sum has been moved into BigIntegers
+     */
+    private void addBig(BigInteger num, BigInteger denom) {
+        if (denom.equals(bigDenominator)) {
+            bigNumerator = bigNumerator.add(num);
+            return;
+        }
+        BigInteger gcd = bigDenominator.gcd(denom);
+        BigInteger myMultiple = denom.divide(gcd);
+        BigInteger otherMultiple = bigDenominator.divide(gcd);
+        bigNumerator = bigNumerator.multiply(myMultiple).add(num.multiply(otherMultiple));
+        bigDenominator = bigDenominator.multiply(myMultiple);
+    }
+
+    /**
+     * Helper method that brings the long representation of the sum to lowest terms
+     */
+    private void reduce() {
+        long gcd = gcd(numerator, denominator);
+        if (gcd > 1) {
+            numerator /= gcd;
+            denominator /= gcd;
+        }
+    }
+
+    /**
+     * Finds the greatest common divisor of two numbers using Euclid's algorithm
+     * @return the gcd, which is never negative
+     * @throws ArithmeticException if the gcd is 2^63
+     */
+    static long gcd(long first, long second) {
+        while (second != 0) {
+            long remainder = first % second;
+            first = second;
+            second = remainder;
+        }
+        return first < 0 ? Math.negateExact(first) : first;
+    }
+}
@@ -0,0 +1,151 @@
+package fraction;
+
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * An immutable rational function P(x) / Q(x), where P and Q are Polynomials with Fraction coefficients.
+ * <p>
+ * At x = p/q Horner's scheme gives integers A and B with {@code P(x) = A / (Lp q^m)} and
+ * {@code Q(x) = B / (Lq q^k)}, where Lp and Lq are the common denominators of the coefficients and m and k
+ * are the degrees. The quotient is therefore {@code A Lq q^k / (B Lp q^m)}, and the q powers cancel down to
+ * q^|k - m| on one side. The quotient is reduced once, instead of reducing both values and then their
+ * quotient. Like Polynomial, the arithmetic is done in longs and moves to BigIntegers only for points
+ * where it would overflow.
+ * @author mmb1995
+ *
+ */
+public class RationalFunction {
+    private final Polynomial numerator;
+    private final Polynomial denominator;
+
+    /**
+     * Creates a rational function
+     * @param numerator the polynomial above the line
+     * @param denominator the polynomial below the line, which can't be the zero polynomial
+     */
+    public RationalFunction(Polynomial numerator, Polynomial denominator) {
+        if (numerator == null || denominator == null) {
+            throw new IllegalArgumentException();
+        }
+        if (denominator.getDegree() < 0) {
+            throw new IllegalArgumentException("The denominator of a rational function can't be zero.");
+        }
+        this.numerator = numerator;
+        this.denominator = denominator;
+    }
+
+    public Polynomial getNumerator() {
+        return numerator;
+    }
+
+    public Polynomial getDenominator() {
+        return denominator;
+    }
+
+    /**
+     * Evaluates the rational function at a point
+     * @param x the point
+     * @return the exact value in lowest terms
+     * @throws IllegalArgumentException if the denominator is zero at x
+     */
+    public BigFraction evaluate(Fraction x) {
+        if (x == null) {
+            throw new IllegalArgumentException();
+        }
+        long p = x.getNumerator();
+        long q = x.getDenominator();
+        // Keep the sign on the numerator
+        if (q < 0) {
+            p = -p;
+            q = -q;
+        }
+
+        if (numerator.fitsInLong() && denominator.fitsInLong()) {
+            try {
+                return evaluateExact(p, q, x);
+            } catch (ArithmeticException ex) {
+                // An intermediate value overflowed a long, use BigIntegers for this point
+            }
+        }
+        return evaluateBig(BigInteger.valueOf(p), BigInteger.valueOf(q), x);
+    }
+
+    /**
+     * Evaluates the rational function at every point
+     * @param points the points
+     * @return the values, in the same order as the points
+     * @throws IllegalArgumentException if the denominator is zero at any of the points
+     */
+    public BigFraction[] evaluateAll(Fraction[] points) {
+        BigFraction[] results = new BigFraction[points.length];
+        for (int i = 0; i < points.length; i++) {
+            results[i] = evaluate(points[i]);
+        }
+        return results;
+    }
+
+    /**
+     * Evaluates the rational function at every point, splitting the points across the pool
+     * @param points the points
+     * @param pool the pool that evaluates the points
+     * @return the values, in the same order as the points
+     * @throws IllegalArgumentException if the denominator is zero at any of the points
+     */
+    public BigFraction[] evaluateAll(Fraction[] points, ForkJoinPool pool) {
+        BigFraction[] results = new BigFraction[points.length];
+        pool.invoke(new EvaluateTask(this::evaluate, points, results));
+        return results;
+    }
+
+    /**
+     * Helper method that evaluates the quotient in longs
+     * @throws ArithmeticException if an intermediate value overflows
+     */
+    private BigFraction evaluateExact(long p, long q, Fraction x) {
+        long below = denominator.hornerExact(p, q);
+        if (below == 0) {
+            throw zeroDenominator(x);
+        }
+        long above = numerator.hornerExact(p, q);
+        if (above == 0) {
+            return BigFraction.ZERO;
+        }
+        long top = Math.multiplyExact(above, denominator.getLongCommonDenominator());
+        long bottom = Math.multiplyExact(below, numerator.getLongCommonDenominator());
+        int shift = denominator.getDegree() - numerator.getDegree();
+        if (shift > 0) {
+            top = Math.multiplyExact(top, Polynomial.powExact(q, shift));
+        } else {
+            bottom = Math.multiplyExact(bottom, Polynomial.powExact(q, -shift));
+        }
+        return BigFraction.valueOf(top, bottom);
+    }
+
+    /**
+     * Helper method that evaluates the quotient in BigIntegers
+     */
+    private BigFraction evaluateBig(BigInteger p, BigInteger q, Fraction x) {
+        BigInteger below = denominator.hornerBig(p, q);
+        if (below.signum() == 0) {
+            throw zeroDenominator(x);
+        }
+        BigInteger above = numerator.hornerBig(p, q);
+        if (above.signum() == 0) {
+            return BigFraction.ZERO;
+        }
+        BigInteger top = above.multiply(denominator.getCommonDenominator());
+        BigInteger bottom = below.multiply(numerator.getCommonDenominator());
+        int shift = denominator.getDegree() - numerator.getDegree();
+        if (shift > 0) {
+            top = top.multiply(q.pow(shift));
+        } else {
+            bottom = bottom.multiply(q.pow(-shift));
+        }
+        return BigFraction.valueOf(top, bottom);
+    }
+
+    private static IllegalArgumentException zeroDenominator(Fraction x) {
+        return new IllegalArgumentException("The denominator of the rational function is zero at " + x);
+    }
+}
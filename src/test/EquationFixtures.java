@@ -0,0 +1,24 @@
+package test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Equations shared by the tests of the batch evaluators
+ */
+public class EquationFixtures {
+
+    /**
+     * Builds a mix of equations that use every operator, fractions and mixed numbers
+     * @param count the number of equations
+     * @return the equations, one per element
+     */
+    public static List<String> buildEquations(int count) {
+        List<String> equations = new ArrayList<>();
+        String[] operators = {"+", "-", "*", "/"};
+        for (int i = 1; i <= count; i++) {
+            equations.add(i + "/" + (i + 1) + " " + operators[i % 4] + " 1_1/" + (i % 5 + 2));
+        }
+        return equations;
+    }
+}
@@ -0,0 +1,118 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import fraction.CheckpointedBatchEvaluator;
+
+public class TestCheckpointedBatchEvaluator {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final String INPUT = "1/2 + 1/4\r\nnot an equation\n1/2 / 0\n3 * 1/3\n2/3 - 1/6\n1_1/2 * 2\n1/ + 2";
+    private static final String EXPECTED = "3/4\nInvalid equation: not an equation\nInvalid equation: 1/2 / 0\n"
+            + "1/1\n1/2\n3_0/1\nInvalid equation: 1/ + 2\n";
+
+    private Path writeInput() throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), INPUT.getBytes(StandardCharsets.UTF_8));
+        return file.toPath();
+    }
+
+    private static String read(Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testCleanRun() throws IOException {
+        Path input = writeInput();
+        Path output = folder.getRoot().toPath().resolve("output.txt");
+        Path checkpoint = folder.getRoot().toPath().resolve("job.checkpoint");
+
+        CheckpointedBatchEvaluator evaluator = new CheckpointedBatchEvaluator(2, 1);
+        assertEquals(7, evaluator.evaluate(input, output, checkpoint));
+        assertEquals(3, evaluator.getInvalidLines());
+        assertEquals(EXPECTED, read(output));
+        assertFalse(Files.exists(checkpoint));
+    }
+
+    @Test
+    public void testResumeFromCheckpoint() throws IOException {
+        Path input = writeInput();
+        Path output = folder.getRoot().toPath().resolve("output.txt");
+        Path checkpoint = folder.getRoot().toPath().resolve("job.checkpoint");
+
+        // Simulate a job that was killed after checkpointing the first three lines and
+        // then writing part of the fourth result
+        String firstLines = "1/2 + 1/4\r\nnot an equation\n1/2 / 0\n";
+        String firstResults = "3/4\nInvalid equation: not an equation\nInvalid equation: 1/2 / 0\n";
+        Files.write(output, (firstResults + "1/").getBytes(StandardCharsets.UTF_8));
+        Files.write(checkpoint, ("inputOffset=" + firstLines.length() + "\noutputOffset=" + firstResults.length()
+                + "\nlines=3\ninvalidLines=2\n").getBytes(StandardCharsets.ISO_8859_1));
+
+        CheckpointedBatchEvaluator evaluator = new CheckpointedBatchEvaluator(1, 0);
+        assertEquals(7, evaluator.evaluate(input, output, checkpoint));
+        assertEquals(3, evaluator.getInvalidLines());
+        assertEquals(EXPECTED, read(output));
+        assertFalse(Files.exists(checkpoint));
+    }
+
+    @Test
+    public void testResumeAfterStoppedRun() throws Exception {
+        Path input = folder.newFile().toPath();
+        Files.write(input, EquationFixtures.buildEquations(200000), StandardCharsets.UTF_8);
+        Path expected = folder.getRoot().toPath().resolve("expected.txt");
+        new CheckpointedBatchEvaluator(1000, 0).evaluate(input, expected,
+                folder.getRoot().toPath().resolve("expected.checkpoint"));
+
+        Path output = folder.getRoot().toPath().resolve("output.txt");
+        Path checkpoint = folder.getRoot().toPath().resolve("job.checkpoint");
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread job = new Thread(() -> {
+            try {
+                new CheckpointedBatchEvaluator(1000, 3).evaluate(input, output, checkpoint);
+            } catch (Throwable ex) {
+                failure.set(ex);
+            }
+        });
+        job.start();
+        // Stop the job once it has written a checkpoint, interrupting its file channels closes them
+        while (!Files.exists(checkpoint) && job.isAlive()) {
+            Thread.sleep(1);
+        }
+        job.interrupt();
+        job.join();
+        assertTrue("The job finished before it could be stopped", failure.get() instanceof IOException);
+        assertTrue(Files.exists(checkpoint));
+
+        CheckpointedBatchEvaluator evaluator = new CheckpointedBatchEvaluator(1000, 3);
+        assertEquals(200000, evaluator.evaluate(input, output, checkpoint));
+        assertEquals(read(expected), read(output));
+        assertFalse(Files.exists(checkpoint));
+    }
+
+    @Test(expected = IOException.class)
+    public void testOutputShorterThanCheckpointThrowsError() throws IOException {
+        Path input = writeInput();
+        Path output = folder.getRoot().toPath().resolve("output.txt");
+        Path checkpoint = folder.getRoot().toPath().resolve("job.checkpoint");
+        Files.write(output, "3/4\n".getBytes(StandardCharsets.UTF_8));
+        Files.write(checkpoint, "inputOffset=11\noutputOffset=100\nlines=1\ninvalidLines=0\n"
+                .getBytes(StandardCharsets.ISO_8859_1));
+
+        new CheckpointedBatchEvaluator().evaluate(input, output, checkpoint);
+    }
+}
@@ -104,5 +104,29 @@ public class TestEquationManipulator {
         assertEquals(expected, result);
     }
     
+    @Test
+    public void testEvaluate() {
+        EquationManipulator em = new EquationManipulator();
+        assertEquals(new Fraction(5, 4), em.evaluate("1/2 + 3/4"));
+        assertEquals(null, em.evaluate("1/2 + f3/4"));
+        assertEquals(null, em.evaluate("1/2 / 0"));
+        assertEquals(null, em.evaluate("1/ + 2"));
+        assertEquals(null, em.evaluate("/5 * 3"));
+        assertEquals(null, em.evaluate("1_/2 + 1"));
+        assertEquals(null, em.evaluate("- + 1"));
+    }
+    
+    @Test
+    public void testGetFractionIsNullOnMalformedInput() {
+        // These are the kind of lines that Main --stats counts as invalid
+        EquationManipulator em = new EquationManipulator();
+        assertEquals(null, em.getFraction("/5"));
+        assertEquals(null, em.getFraction("1/"));
+        assertEquals(null, em.getFraction("-"));
+        assertEquals(null, em.getFraction("-/2"));
+        assertEquals(null, em.getFraction("_1/2"));
+        assertEquals(null, em.getFraction("1_/2"));
+        assertEquals(null, em.getFraction("1_"));
+    }
 
 }
@@ -0,0 +1,169 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import fraction.EquationManipulator;
+import fraction.EquationPipeline;
+
+public class TestEquationPipeline {
+
+    @Test
+    public void testOrderedOutputMatchesInput() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            EquationPipeline pipeline = new EquationPipeline(executor, 7, 3, true);
+            List<String> equations = EquationFixtures.buildEquations(1000);
+            List<String> output = new ArrayList<>();
+            long count = pipeline.process(equations.iterator(), output::add);
+
+            assertEquals(1000, count);
+            // 1/2 - 1_1/3 is the first equation
+            assertEquals("-5/6", output.get(0));
+            // 2/3 * 1_1/4 is the second equation
+            assertEquals("5/6", output.get(1));
+
+            // Every line has to match evaluating the equations one at a time, in order
+            EquationManipulator em = new EquationManipulator();
+            List<String> expected = new ArrayList<>();
+            for (String equation: equations) {
+                expected.add(em.evaluateLine(equation));
+            }
+            assertEquals(expected, output);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testUnorderedOutputContainsEveryResult() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<String> expected = new ArrayList<>();
+            new EquationPipeline(executor, 5, 4, true).process(EquationFixtures.buildEquations(500).iterator(), expected::add);
+
+            List<String> output = new ArrayList<>();
+            new EquationPipeline(executor, 5, 4, false).process(EquationFixtures.buildEquations(500).iterator(), output::add);
+
+            Collections.sort(expected);
+            Collections.sort(output);
+            assertEquals(expected, output);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSingleThreadedExecutor() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            EquationPipeline pipeline = new EquationPipeline(executor, 2, 1, true);
+            List<String> lines = new ArrayList<>();
+            lines.add("1/2 + 1/2");
+            lines.add("not an equation");
+            lines.add("1/2 / 0");
+            List<String> output = new ArrayList<>();
+            pipeline.process(lines.iterator(), output::add);
+
+            assertEquals("1/1", output.get(0));
+            assertEquals("Invalid equation: not an equation", output.get(1));
+            assertEquals("Invalid equation: 1/2 / 0", output.get(2));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testMalformedLineOnlyInvalidatesThatLine() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            EquationPipeline pipeline = new EquationPipeline(executor, 3, 2, true);
+            List<String> output = new ArrayList<>();
+            long count = pipeline.process(Arrays.asList("1/2 + 1/2", "1/ + 2", "1 + 1").iterator(), output::add);
+
+            assertEquals(3, count);
+            assertEquals(Arrays.asList("1/1", "Invalid equation: 1/ + 2", "2_0/1"), output);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testBlockedSinkBoundsLinesRead() throws Exception {
+        final int batchSize = 4;
+        final int maxBatchesInFlight = 3;
+        final int bound = batchSize * (maxBatchesInFlight + 1);
+        Iterator<String> equations = EquationFixtures.buildEquations(1000).iterator();
+        AtomicInteger read = new AtomicInteger();
+        Iterator<String> lines = new Iterator<String>() {
+            @Override
+            public boolean hasNext() {
+                return equations.hasNext();
+            }
+
+            @Override
+            public String next() {
+                read.incrementAndGet();
+                return equations.next();
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            EquationPipeline pipeline = new EquationPipeline(executor, batchSize, maxBatchesInFlight, true);
+            Future<Long> count = caller.submit(() -> pipeline.process(lines, line -> {
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+
+            // Wait for the pipeline to fill up, then make sure it stops reading
+            long deadline = System.currentTimeMillis() + 5000;
+            while (read.get() < bound && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(100);
+            assertEquals(bound, read.get());
+
+            release.countDown();
+            assertEquals(1000, (long) count.get());
+        } finally {
+            release.countDown();
+            caller.shutdown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSinkFailureIsReported() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            EquationPipeline pipeline = new EquationPipeline(executor, 3, 2, true);
+            pipeline.process(EquationFixtures.buildEquations(100).iterator(), line -> {
+                throw new RuntimeException("sink is broken");
+            });
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException ex) {
+            // Do nothing we want this to happen
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import fraction.Fraction;
+import fraction.FormulaSheet;
+
+public class TestFormulaSheet {
+
+    private FormulaSheet buildSheet() {
+        FormulaSheet sheet = new FormulaSheet();
+        sheet.setValue("a", new Fraction(1, 2));
+        sheet.setValue("b", new Fraction(1, 3));
+        sheet.setValue("n", new Fraction(5));
+        sheet.define("total", "a + b");
+        sheet.define("share", "total / n");
+        return sheet;
+    }
+
+    @Test
+    public void testFormulasAreEvaluated() {
+        FormulaSheet sheet = buildSheet();
+        assertEquals(new Fraction(5, 6), sheet.getValue("total"));
+        assertEquals(new Fraction(1, 6), sheet.getValue("share"));
+    }
+
+    @Test
+    public void testChangeOnlyRecomputesDependents() {
+        FormulaSheet sheet = buildSheet();
+        sheet.define("other", "b * 2");
+        sheet.recompute();
+
+        // Only share depends on n
+        sheet.setValue("n", new Fraction(10));
+        assertEquals(1, sheet.recompute());
+        assertEquals(new Fraction(1, 12), sheet.getValue("share"));
+
+        // total, share and other all depend on b
+        sheet.setValue("b", new Fraction(1, 2));
+        assertEquals(3, sheet.recompute());
+        assertEquals(new Fraction(1, 1), sheet.getValue("total"));
+        assertEquals(new Fraction(1, 10), sheet.getValue("share"));
+        assertEquals(new Fraction(1, 1), sheet.getValue("other"));
+
+        assertEquals(0, sheet.recompute());
+    }
+
+    @Test
+    public void testRepeatedOperandIsRecomputed() {
+        FormulaSheet sheet = new FormulaSheet();
+        sheet.setValue("a", new Fraction(1, 2));
+        sheet.define("x", "a + 1");
+        sheet.define("y", "x * x");
+        assertEquals(2, sheet.recompute());
+        assertEquals(new Fraction(9, 4), sheet.getValue("y"));
+
+        sheet.setValue("a", new Fraction(3, 2));
+        assertEquals(2, sheet.recompute());
+        assertEquals(0, sheet.recompute());
+        assertEquals(new Fraction(25, 4), sheet.getValue("y"));
+    }
+
+    @Test
+    public void testRedefiningAFormula() {
+        FormulaSheet sheet = buildSheet();
+        sheet.define("total", "a - b");
+        assertEquals(new Fraction(1, 30), sheet.getValue("share"));
+
+        // A formula can be turned back into an input
+        sheet.setValue("total", new Fraction(5));
+        assertEquals(new Fraction(1, 1), sheet.getValue("share"));
+    }
+
+    @Test
+    public void testMissingValuesAndDivisionByZero() {
+        FormulaSheet sheet = new FormulaSheet();
+        sheet.define("ratio", "x / y");
+        assertNull(sheet.getValue("ratio"));
+
+        sheet.setValue("x", new Fraction(1));
+        sheet.setValue("y", new Fraction(0));
+        assertNull(sheet.getValue("ratio"));
+
+        sheet.setValue("y", new Fraction(4));
+        assertEquals(new Fraction(1, 4), sheet.getValue("ratio"));
+        assertNull(sheet.getValue("unknown"));
+    }
+
+    @Test
+    public void testCircularDependencyThrowsError() {
+        FormulaSheet sheet = buildSheet();
+        try {
+            sheet.define("a", "share + 1");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // Do nothing we want this to happen
+        }
+        // The sheet is unchanged
+        assertEquals(new Fraction(1, 6), sheet.getValue("share"));
+    }
+
+    @Test
+    public void testInvalidFormulaThrowsError() {
+        FormulaSheet sheet = new FormulaSheet();
+        try {
+            sheet.define("total", "a % b");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // Do nothing we want this to happen
+        }
+    }
+
+    @Test
+    public void testFailedDefinitionLeavesNoVariables() {
+        FormulaSheet sheet = new FormulaSheet();
+        String[][] invalid = {{"x", "x + 1"}, {"y", "z + 1/"}, {"y", "z + 1/0"}, {"2y", "z + 1"}};
+        for (String[] formula: invalid) {
+            try {
+                sheet.define(formula[0], formula[1]);
+                fail("Expected IllegalArgumentException");
+            } catch (IllegalArgumentException ex) {
+                // Do nothing we want this to happen
+            }
+        }
+        assertTrue(sheet.getVariableNames().isEmpty());
+
+        sheet.define("total", "a + b");
+        assertEquals(new TreeSet<>(Arrays.asList("a", "b", "total")), sheet.getVariableNames());
+    }
+
+    @Test
+    public void testParallelRecompute() throws InterruptedException {
+        FormulaSheet sheet = new FormulaSheet();
+        sheet.setValue("x", new Fraction(1, 2));
+        for (int i = 0; i < 50; i++) {
+            sheet.define("branch" + i, "x * " + i);
+            sheet.define("leaf" + i, "branch" + i + " + 1");
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            assertEquals(100, sheet.recompute(executor));
+            sheet.setValue("x", new Fraction(1, 4));
+            assertEquals(100, sheet.recompute(executor));
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(new Fraction(7, 4), sheet.getValue("leaf3"));
+    }
+}
@@ -0,0 +1,95 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import fraction.BigFraction;
+import fraction.Fraction;
+import fraction.FractionKernels;
+
+public class TestFractionKernels {
+
+    private static Fraction[] randomFractions(Random random, int length) {
+        Fraction[] fractions = new Fraction[length];
+        for (int i = 0; i < length; i++) {
+            fractions[i] = new Fraction(random.nextInt(21) - 10, 1 + random.nextInt(12));
+        }
+        return fractions;
+    }
+
+    private static BigFraction naiveDotProduct(Fraction[] first, Fraction[] second) {
+        BigFraction sum = BigFraction.ZERO;
+        for (int i = 0; i < first.length; i++) {
+            sum = sum.add(BigFraction.valueOf(first[i]).multiply(BigFraction.valueOf(second[i])));
+        }
+        return sum;
+    }
+
+    @Test
+    public void testDotProduct() {
+        Fraction[] first = {new Fraction(1, 2), new Fraction(2, 3), new Fraction(-1, 4)};
+        Fraction[] second = {new Fraction(1, 3), new Fraction(3, 4), new Fraction(2, -1)};
+        // 1/6 + 1/2 + 1/2
+        assertEquals(BigFraction.valueOf(7, 6), FractionKernels.dotProduct(first, second));
+
+        int[] firstNum = {1, 2, -1};
+        int[] firstDen = {2, 3, 4};
+        int[] secondNum = {1, 3, 2};
+        int[] secondDen = {3, 4, -1};
+        assertEquals(BigFraction.valueOf(7, 6), FractionKernels.dotProduct(firstNum, firstDen, secondNum, secondDen));
+    }
+
+    @Test
+    public void testWeightedSum() {
+        Fraction[] values = {new Fraction(1, 2), new Fraction(1, 3)};
+        int[] weights = {3, -6};
+        assertEquals(BigFraction.valueOf(-1, 2), FractionKernels.weightedSum(values, weights));
+    }
+
+    @Test
+    public void testSumOfProducts() {
+        Fraction[] first = {new Fraction(1, 2), new Fraction(2, 1)};
+        Fraction[] second = {new Fraction(2, 3), new Fraction(1, 4)};
+        Fraction[] third = {new Fraction(3, 1), new Fraction(2, 1)};
+        assertEquals(BigFraction.valueOf(2, 1), FractionKernels.sumOfProducts(first, second, third));
+
+        // The products don't fit in a long
+        Fraction big = new Fraction(Integer.MAX_VALUE, Integer.MAX_VALUE - 1);
+        Fraction[] bigs = {big, big};
+        BigFraction bigBig = BigFraction.valueOf(big);
+        BigFraction expected = bigBig.multiply(bigBig).multiply(bigBig).multiply(BigFraction.valueOf(2, 1));
+        assertEquals(expected, FractionKernels.sumOfProducts(bigs, bigs, bigs));
+    }
+
+    @Test
+    public void testLongVectorsMatchNaiveResult() {
+        Random random = new Random(7);
+        Fraction[] first = randomFractions(random, 20000);
+        Fraction[] second = randomFractions(random, 20000);
+        BigFraction expected = naiveDotProduct(first, second);
+
+        assertEquals(expected, FractionKernels.dotProduct(first, second));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(expected, FractionKernels.dotProduct(first, second, pool));
+            assertEquals(expected, FractionKernels.sumOfProducts(pool, first, second));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void mismatchedLengthsThrowError() {
+        try {
+            FractionKernels.dotProduct(new Fraction[2], new Fraction[3]);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // Do nothing we want this to happen
+        }
+    }
+}
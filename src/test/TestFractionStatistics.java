@@ -0,0 +1,105 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import fraction.BigFraction;
+import fraction.Fraction;
+import fraction.FractionStatistics;
+
+public class TestFractionStatistics {
+
+    @Test
+    public void testBasicStatistics() {
+        FractionStatistics statistics = new FractionStatistics();
+        statistics.accept(new Fraction(1, 2));
+        statistics.accept(new Fraction(1, 3));
+        statistics.accept(new Fraction(1, 6));
+
+        assertEquals(3, statistics.getCount());
+        assertEquals(BigFraction.valueOf(1, 1), statistics.getSum());
+        assertEquals(BigFraction.valueOf(1, 3), statistics.getMean());
+        assertEquals(BigFraction.valueOf(1, 54), statistics.getVariance());
+        assertEquals(new Fraction(1, 6), statistics.getMin());
+        assertEquals(new Fraction(1, 2), statistics.getMax());
+    }
+
+    @Test
+    public void testEmptyStatistics() {
+        FractionStatistics statistics = new FractionStatistics();
+        assertEquals(0, statistics.getCount());
+        assertEquals(BigFraction.ZERO, statistics.getSum());
+        assertNull(statistics.getMean());
+        assertNull(statistics.getMin());
+        assertNull(statistics.getMax());
+    }
+
+    @Test
+    public void testNegativeDenominators() {
+        FractionStatistics statistics = new FractionStatistics();
+        statistics.accept(new Fraction(1, -2));
+        statistics.accept(new Fraction(1, 4));
+
+        assertEquals(BigFraction.valueOf(-1, 4), statistics.getSum());
+        assertEquals(new Fraction(1, -2), statistics.getMin());
+        assertEquals(new Fraction(1, 4), statistics.getMax());
+    }
+
+    @Test
+    public void testMinAndMaxAreCopies() {
+        FractionStatistics statistics = new FractionStatistics();
+        Fraction value = new Fraction(1, 2);
+        statistics.accept(value);
+
+        // Changing the recorded value or the returned one doesn't change the statistics
+        value.setNumerator(5);
+        statistics.getMin().setNumerator(-7);
+        statistics.getMax().setDenominator(9);
+        assertEquals(new Fraction(1, 2), statistics.getMin());
+        assertEquals(new Fraction(1, 2), statistics.getMax());
+    }
+
+    @Test
+    public void testSumDoesNotOverflow() {
+        FractionStatistics statistics = new FractionStatistics();
+        for (int i = 0; i < 1000; i++) {
+            statistics.accept(new Fraction(Integer.MAX_VALUE, 1));
+        }
+        assertEquals(BigFraction.valueOf(Integer.MAX_VALUE * 1000L, 1), statistics.getSum());
+
+        // Many different prime denominators push the shared denominator past a long
+        FractionStatistics primes = new FractionStatistics();
+        int[] denominators = {2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37, 41, 43, 47, 53, 59, 61};
+        BigFraction expected = BigFraction.ZERO;
+        for (int denominator: denominators) {
+            primes.accept(new Fraction(1, denominator));
+            expected = expected.add(BigFraction.valueOf(1, denominator));
+        }
+        assertEquals(expected, primes.getSum());
+    }
+
+    @Test
+    public void testCombineMatchesSinglePass() {
+        FractionStatistics whole = new FractionStatistics();
+        FractionStatistics firstHalf = new FractionStatistics();
+        FractionStatistics secondHalf = new FractionStatistics();
+        for (int i = 1; i <= 20; i++) {
+            Fraction value = new Fraction(i % 7 - 3, i);
+            whole.accept(value);
+            if (i <= 10) {
+                firstHalf.accept(value);
+            } else {
+                secondHalf.accept(value);
+            }
+        }
+
+        FractionStatistics combined = firstHalf.combine(secondHalf);
+        assertEquals(whole.getCount(), combined.getCount());
+        assertEquals(whole.getSum(), combined.getSum());
+        assertEquals(whole.getVariance(), combined.getVariance());
+        assertEquals(whole.getMin(), combined.getMin());
+        assertEquals(whole.getMax(), combined.getMax());
+    }
+}
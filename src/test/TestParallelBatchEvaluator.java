@@ -0,0 +1,89 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import fraction.EquationManipulator;
+import fraction.ParallelBatchEvaluator;
+
+public class TestParallelBatchEvaluator {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File writeEquations(int count) throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), EquationFixtures.buildEquations(count), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private String evaluateSequentially(File file) throws IOException {
+        EquationManipulator em = new EquationManipulator();
+        StringBuilder builder = new StringBuilder();
+        for (String line: Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            builder.append(em.evaluateLine(line)).append('\n');
+        }
+        return builder.toString();
+    }
+
+    @Test
+    public void testOrderedOutputMatchesSequentialEvaluation() throws IOException {
+        File file = writeEquations(2000);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // A tiny chunk size splits the file into many chunks
+            ParallelBatchEvaluator evaluator = new ParallelBatchEvaluator(pool, 100, 3, true);
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            long lines = evaluator.evaluate(file.toPath(), output);
+
+            assertEquals(2000, lines);
+            assertEquals(evaluateSequentially(file), new String(output.toByteArray(), StandardCharsets.UTF_8));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testUnorderedOutputContainsEveryResult() throws IOException {
+        File file = writeEquations(2000);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelBatchEvaluator evaluator = new ParallelBatchEvaluator(pool, 100, 3, false);
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            evaluator.evaluate(file.toPath(), output);
+
+            String[] expected = evaluateSequentially(file).split("\n");
+            String[] actual = new String(output.toByteArray(), StandardCharsets.UTF_8).split("\n");
+            Arrays.sort(expected);
+            Arrays.sort(actual);
+            assertEquals(Arrays.asList(expected), Arrays.asList(actual));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testLineEndingsAndInvalidLines() throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), "1/2 + 1/4\r\nnot an equation\n1/ + 2\n1/2 / 0\n3 * 1/3".getBytes(StandardCharsets.UTF_8));
+        ParallelBatchEvaluator evaluator = new ParallelBatchEvaluator(ForkJoinPool.commonPool(), 4, 2, true);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long lines = evaluator.evaluate(file.toPath(), output);
+
+        assertEquals(5, lines);
+        assertEquals("3/4\nInvalid equation: not an equation\nInvalid equation: 1/ + 2\n"
+                + "Invalid equation: 1/2 / 0\n1/1\n",
+                new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,128 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import fraction.BigFraction;
+import fraction.Fraction;
+import fraction.Polynomial;
+import fraction.RationalFunction;
+
+public class TestPolynomial {
+
+    /**
+     * Evaluates a polynomial term by term without Horner's scheme
+     */
+    private static BigFraction evaluateDirectly(Fraction[] coefficients, Fraction x) {
+        BigFraction sum = BigFraction.ZERO;
+        BigFraction power = BigFraction.valueOf(1, 1);
+        for (Fraction coefficient: coefficients) {
+            sum = sum.add(BigFraction.valueOf(coefficient).multiply(power));
+            power = power.multiply(BigFraction.valueOf(x));
+        }
+        return sum;
+    }
+
+    @Test
+    public void testEvaluate() {
+        // 1/2 + 3x + 2/3x^2
+        Polynomial polynomial = new Polynomial(new Fraction(1, 2), new Fraction(3), new Fraction(2, 3));
+        assertEquals(2, polynomial.getDegree());
+        assertEquals(BigFraction.valueOf(1, 2), polynomial.evaluate(new Fraction(0)));
+        // 1/2 + 3/2 + 1/6
+        assertEquals(BigFraction.valueOf(13, 6), polynomial.evaluate(new Fraction(1, 2)));
+        // 1/2 - 3/2 + 1/6
+        assertEquals(BigFraction.valueOf(-5, 6), polynomial.evaluate(new Fraction(1, -2)));
+    }
+
+    @Test
+    public void testZeroAndConstantPolynomials() {
+        Polynomial zero = new Polynomial(new Fraction(0), new Fraction(0, 3));
+        assertEquals(-1, zero.getDegree());
+        assertEquals(BigFraction.ZERO, zero.evaluate(new Fraction(7, 3)));
+
+        Polynomial constant = new Polynomial(new Fraction(5, 4));
+        assertEquals(BigFraction.valueOf(5, 4), constant.evaluate(new Fraction(7, 3)));
+    }
+
+    @Test
+    public void testLargeValuesMatchDirectEvaluation() {
+        Fraction[] coefficients = new Fraction[12];
+        for (int i = 0; i < coefficients.length; i++) {
+            coefficients[i] = new Fraction(i % 2 == 0 ? i + 1 : -i, i + 2);
+        }
+        Polynomial polynomial = new Polynomial(coefficients);
+
+        // Small points stay in longs, large ones overflow into BigIntegers
+        Fraction[] points = {new Fraction(1, 3), new Fraction(-2, 5), new Fraction(1000, 999),
+                new Fraction(Integer.MAX_VALUE, 7)};
+        for (Fraction point: points) {
+            assertEquals(evaluateDirectly(coefficients, point), polynomial.evaluate(point));
+        }
+    }
+
+    @Test
+    public void testEvaluateAllInParallel() {
+        Polynomial polynomial = new Polynomial(new Fraction(-1), new Fraction(1, 2), new Fraction(3, 7));
+        Fraction[] points = new Fraction[5000];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new Fraction(i - 2500, i % 13 + 1);
+        }
+
+        BigFraction[] expected = polynomial.evaluateAll(points);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            BigFraction[] actual = polynomial.evaluateAll(points, pool);
+            for (int i = 0; i < points.length; i++) {
+                assertEquals(expected[i], actual[i]);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testRationalFunction() {
+        // (x + 1) / (x^2 - 1/4)
+        RationalFunction function = new RationalFunction(new Polynomial(new Fraction(1), new Fraction(1)),
+                new Polynomial(new Fraction(-1, 4), new Fraction(0), new Fraction(1)));
+        assertEquals(BigFraction.valueOf(8, 3), function.evaluate(new Fraction(1)));
+        assertEquals(BigFraction.valueOf(-4, 1), function.evaluate(new Fraction(0)));
+
+        try {
+            function.evaluate(new Fraction(1, 2));
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // Do nothing we want this to happen
+        }
+    }
+
+    @Test
+    public void testRationalFunctionMatchesQuotientOfPolynomials() {
+        Fraction[] small = {new Fraction(3, 4), new Fraction(0), new Fraction(-5, 6)};
+        Fraction[] large = new Fraction[9];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = new Fraction(i % 2 == 0 ? i + 1 : -i, i + 3);
+        }
+        // Small points stay in longs, large ones overflow into BigIntegers
+        Fraction[] points = {new Fraction(1, 3), new Fraction(-2, 5), new Fraction(7, -3),
+                new Fraction(Integer.MAX_VALUE, 7)};
+
+        // The numerator has the lower degree in one function and the higher degree in the other
+        Polynomial[][] pairs = {{new Polynomial(small), new Polynomial(large)},
+                {new Polynomial(large), new Polynomial(small)}};
+        for (Polynomial[] pair: pairs) {
+            RationalFunction function = new RationalFunction(pair[0], pair[1]);
+            for (Fraction point: points) {
+                assertEquals(pair[0].evaluate(point).divide(pair[1].evaluate(point)), function.evaluate(point));
+            }
+        }
+
+        RationalFunction zero = new RationalFunction(new Polynomial(), new Polynomial(small));
+        assertEquals(BigFraction.ZERO, zero.evaluate(new Fraction(1, 3)));
+    }
+}
@@ -0,0 +1,88 @@
+package test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+import fraction.BigFraction;
+import fraction.Fraction;
+import fraction.ProductChain;
+
+public class TestProductChain {
+
+    @Test
+    public void testMultiplyAndDivide() {
+        ProductChain chain = new ProductChain();
+        chain.multiply(new Fraction(2, 3)).multiply(new Fraction(9, 4)).divide(new Fraction(3, 8));
+        assertEquals(new Fraction(4, 1), chain.toFraction());
+    }
+
+    @Test
+    public void testNegativeFractions() {
+        ProductChain chain = new ProductChain();
+        chain.multiply(new Fraction(1, -2)).divide(new Fraction(-3, 4));
+        assertEquals(BigFraction.valueOf(2, 3), chain.toBigFraction());
+
+        chain.multiply(new Fraction(0, 5));
+        assertEquals(BigFraction.ZERO, chain.toBigFraction());
+    }
+
+    @Test
+    public void testLongChainDoesNotOverflow() {
+        // Fraction.multiply overflows on this chain, but the result is just 1/100001
+        ProductChain chain = new ProductChain();
+        for (int n = 1; n <= 100000; n++) {
+            chain.multiply(new Fraction(n, n + 1));
+        }
+        assertEquals(new Fraction(1, 100001), chain.toFraction());
+
+        // Large factors that cancel each other
+        chain = new ProductChain();
+        chain.multiply(new Fraction(Integer.MAX_VALUE, 3)).multiply(new Fraction(3, Integer.MAX_VALUE));
+        assertEquals(new Fraction(1, 1), chain.toFraction());
+    }
+
+    @Test
+    public void testProductLargerThanLong() {
+        // 2^64 doesn't fit in a long, so the chain has to move to BigIntegers
+        ProductChain chain = new ProductChain();
+        for (int i = 0; i < 64; i++) {
+            chain.multiply(new Fraction(2, 1));
+        }
+        chain.divide(new Fraction(3, 1));
+        assertEquals(BigFraction.valueOf(BigInteger.ONE.shiftLeft(64), BigInteger.valueOf(3)), chain.toBigFraction());
+
+        // Dividing brings the product back into a Fraction
+        for (int i = 0; i < 62; i++) {
+            chain.divide(new Fraction(2, 1));
+        }
+        assertEquals(new Fraction(4, 3), chain.toFraction());
+    }
+
+    @Test
+    public void testEvaluate() {
+        assertEquals(BigFraction.valueOf(4, 1), ProductChain.evaluate("2/3 * 9/4 / 3/8"));
+        assertEquals(BigFraction.valueOf(6, 5), ProductChain.evaluate("1/2 * 3 / 1_1/4"));
+        assertEquals(BigFraction.valueOf(1, 2), ProductChain.evaluate("1/2"));
+        assertNull(ProductChain.evaluate("1/2 + 3/4"));
+        assertNull(ProductChain.evaluate("1/2 *"));
+        assertNull(ProductChain.evaluate(""));
+        assertNull(ProductChain.evaluate("1/2 / 0"));
+        assertNull(ProductChain.evaluate("1/0 * 2"));
+        assertNull(ProductChain.evaluate("1/ * 2"));
+    }
+
+    @Test
+    public void divideByZeroThrowsError() {
+        try {
+            new ProductChain().divide(new Fraction(0, 1));
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // Do nothing we want this to happen
+        }
+    }
+}